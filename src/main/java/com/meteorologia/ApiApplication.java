@@ -46,6 +46,14 @@ import jakarta.ws.rs.core.Application;
         @Tag(
             name = "Stations API", 
             description = "Endpoints para gestionar y consultar información de estaciones meteorológicas"
+        ),
+        @Tag(
+            name = "Alerts API",
+            description = "Endpoints para definir reglas de aviso por umbral y seguir los avisos activos"
+        ),
+        @Tag(
+            name = "Admin API",
+            description = "Endpoints para administrar el comportamiento del mock (fallos, latencias)"
         )
     }
 )
@@ -0,0 +1,19 @@
+package com.meteorologia.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.quarkus.jackson.ObjectMapperCustomizer;
+
+import jakarta.inject.Singleton;
+
+@Singleton
+public class JacksonConfig implements ObjectMapperCustomizer {
+
+    @Override
+    public void customize(ObjectMapper objectMapper) {
+        // Sin proyección (?fields=) el filtro de los modelos serializa todas las propiedades
+        objectMapper.setFilterProvider(new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
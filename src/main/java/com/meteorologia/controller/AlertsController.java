@@ -0,0 +1,235 @@
+package com.meteorologia.controller;
+
+import com.meteorologia.exception.GlobalExceptionHandler;
+import com.meteorologia.filter.ConcurrencyLimited;
+import com.meteorologia.model.Alert;
+import com.meteorologia.model.AlertEvent;
+import com.meteorologia.model.AlertRule;
+import com.meteorologia.service.AlertEngine;
+
+import io.smallrye.mutiny.Multi;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Path("/api/alerts")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Alerts API", description = "API para definir reglas de aviso y consultar avisos activos")
+public class AlertsController {
+
+    @Inject
+    AlertEngine alertEngine;
+
+    @GET
+    @ConcurrencyLimited
+    @Operation(
+        summary = "Obtener los avisos activos",
+        description = "Retorna los avisos que se cumplen con las lecturas del tick actual, " +
+                      "opcionalmente filtrados por estación, regla o nivel"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Avisos obtenidos exitosamente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = Alert[].class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response getActiveAlerts(
+        @Parameter(description = "ID de la estación", required = false, example = "STATION_002")
+        @QueryParam("station_id") String stationId,
+
+        @Parameter(description = "ID de la regla", required = false, example = "RULE_001")
+        @QueryParam("rule_id") String ruleId,
+
+        @Parameter(description = "Nivel del aviso", required = false, example = "NARANJA")
+        @QueryParam("severity") String severity) {
+
+        try {
+            List<Alert> alerts = alertEngine.getActiveAlerts().stream()
+                .filter(a -> stationId == null || stationId.equals(a.getStationId()))
+                .filter(a -> ruleId == null || ruleId.equals(a.getRuleId()))
+                .filter(a -> severity == null || severity.equalsIgnoreCase(a.getSeverity()))
+                .collect(Collectors.toList());
+            return Response.ok(alerts).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Suscribirse a los cambios de los avisos",
+        description = "Flujo de eventos (SSE) con cada aviso que se activa o finaliza desde la suscripción. " +
+                      "El estado inicial se obtiene de GET /api/alerts"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Flujo de eventos de avisos",
+            content = @Content(
+                mediaType = MediaType.SERVER_SENT_EVENTS,
+                schema = @Schema(implementation = AlertEvent.class)
+            )
+        )
+    })
+    public Multi<AlertEvent> streamAlerts() {
+        return alertEngine.events();
+    }
+
+    @GET
+    @Path("/rules")
+    @Operation(
+        summary = "Obtener las reglas de aviso",
+        description = "Retorna todas las reglas de aviso definidas"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Reglas obtenidas exitosamente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = AlertRule[].class)
+            )
+        )
+    })
+    public Response getRules() {
+        return Response.ok(alertEngine.getRules()).build();
+    }
+
+    @GET
+    @Path("/rules/{id}")
+    @Operation(
+        summary = "Obtener regla de aviso por ID",
+        description = "Retorna una regla de aviso específica"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Regla encontrada exitosamente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = AlertRule.class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Regla no encontrada"
+        )
+    })
+    public Response getRule(
+        @Parameter(description = "ID de la regla", required = true, example = "RULE_001")
+        @PathParam("id") String id) {
+
+        Optional<AlertRule> rule = alertEngine.getRule(id);
+        if (rule.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"error\": \"Regla no encontrada\"}")
+                .build();
+        }
+        return Response.ok(rule.get()).build();
+    }
+
+    @POST
+    @Path("/rules")
+    @Operation(
+        summary = "Crear una regla de aviso",
+        description = "Define un umbral sobre una variable de las lecturas (p. ej. wind_speed > 25), " +
+                      "opcionalmente limitado a un país, una región o una estación. " +
+                      "Si no se indica id se asigna uno libre"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "201",
+            description = "Regla creada",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = AlertRule.class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Regla inválida"
+        ),
+        @APIResponse(
+            responseCode = "409",
+            description = "Ya existe una regla con ese id"
+        )
+    })
+    public Response createRule(AlertRule rule, @Context UriInfo uriInfo) {
+        if (rule == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Se requieren los datos de la regla\"}")
+                .build();
+        }
+        try {
+            AlertRule created = alertEngine.createRule(rule);
+            return Response.created(uriInfo.getAbsolutePathBuilder().path(created.getId()).build())
+                .entity(created)
+                .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        }
+    }
+
+    @DELETE
+    @Path("/rules/{id}")
+    @Operation(
+        summary = "Eliminar una regla de aviso",
+        description = "Elimina la regla; sus avisos activos finalizan en la siguiente evaluación"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "204",
+            description = "Regla eliminada"
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Regla no encontrada"
+        )
+    })
+    public Response deleteRule(
+        @Parameter(description = "ID de la regla", required = true, example = "RULE_001")
+        @PathParam("id") String id) {
+
+        if (!alertEngine.deleteRule(id)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"error\": \"Regla no encontrada\"}")
+                .build();
+        }
+        return Response.noContent().build();
+    }
+}
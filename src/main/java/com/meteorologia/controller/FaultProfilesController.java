@@ -0,0 +1,127 @@
+package com.meteorologia.controller;
+
+import com.meteorologia.exception.GlobalExceptionHandler;
+import com.meteorologia.model.FaultProfile;
+import com.meteorologia.service.FaultInjector;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+@Path("/api/admin/fault-profiles")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Admin API", description = "Administración del comportamiento del mock")
+public class FaultProfilesController {
+
+    @Inject
+    FaultInjector faultInjector;
+
+    @GET
+    @Operation(
+        summary = "Obtener los perfiles de fallos activos",
+        description = "Retorna los perfiles de latencia y fallos inyectados actualmente"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Perfiles obtenidos exitosamente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = FaultProfile[].class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Inyección de fallos desactivada"
+        )
+    })
+    public Response getProfiles() {
+        if (!faultInjector.isEnabled()) {
+            return disabled();
+        }
+        return Response.ok(faultInjector.getProfiles()).build();
+    }
+
+    @PUT
+    @Operation(
+        summary = "Sustituir los perfiles de fallos",
+        description = "Reemplaza de forma atómica el conjunto de perfiles de latencia y fallos. " +
+                      "Cada perfil se aplica al prefijo de ruta más largo que coincida"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Perfiles activados",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = FaultProfile[].class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Perfil inválido"
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Inyección de fallos desactivada"
+        )
+    })
+    public Response replaceProfiles(List<FaultProfile> profiles) {
+        if (!faultInjector.isEnabled()) {
+            return disabled();
+        }
+        if (profiles == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Se requiere una lista de perfiles\"}")
+                .build();
+        }
+        try {
+            faultInjector.replaceProfiles(profiles);
+            return Response.ok(faultInjector.getProfiles()).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        }
+    }
+
+    @DELETE
+    @Operation(
+        summary = "Desactivar la inyección de fallos",
+        description = "Elimina todos los perfiles de latencia y fallos"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "204",
+            description = "Perfiles eliminados"
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Inyección de fallos desactivada"
+        )
+    })
+    public Response clearProfiles() {
+        if (!faultInjector.isEnabled()) {
+            return disabled();
+        }
+        faultInjector.clear();
+        return Response.noContent().build();
+    }
+
+    // Sin inyección de fallos (por defecto en producción) la administración no existe
+    private static Response disabled() {
+        return Response.status(Response.Status.NOT_FOUND)
+            .entity("{\"error\": \"La inyección de fallos está desactivada\"}")
+            .build();
+    }
+}
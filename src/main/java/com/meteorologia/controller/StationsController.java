@@ -1,6 +1,12 @@
 package com.meteorologia.controller;
 
+import com.meteorologia.exception.GlobalExceptionHandler;
+import com.meteorologia.filter.ConcurrencyLimited;
+import com.meteorologia.jfr.StationSearchEvent;
 import com.meteorologia.model.WeatherStation;
+import com.meteorologia.service.FieldProjections;
+import com.meteorologia.service.StationImporter;
+import com.meteorologia.service.StationRegistry;
 import com.meteorologia.service.WeatherService;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -13,8 +19,12 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,13 +35,24 @@ import java.util.Optional;
 @Tag(name = "Stations API", description = "API para gestionar estaciones meteorológicas")
 public class StationsController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Inject
     WeatherService weatherService;
 
+    @Inject
+    FieldProjections fieldProjections;
+
+    @Inject
+    StationImporter stationImporter;
+
     @GET
+    @ConcurrencyLimited
     @Operation(
         summary = "Obtener todas las estaciones meteorológicas",
-        description = "Retorna una lista de todas las estaciones meteorológicas disponibles"
+        description = "Retorna una página de estaciones meteorológicas en orden estable. " +
+                      "Si hay más resultados, la cabecera X-Next-Cursor contiene el cursor de la siguiente página"
     )
     @APIResponses({
         @APIResponse(
@@ -42,15 +63,40 @@ public class StationsController {
                 schema = @Schema(implementation = WeatherStation[].class)
             )
         ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Límite o cursor inválido"
+        ),
         @APIResponse(
             responseCode = "500",
             description = "Error interno del servidor"
         )
     })
-    public Response getAllStations() {
+    public Response getAllStations(
+        @Parameter(
+            description = "Número máximo de estaciones por página (1-1000)",
+            required = false,
+            example = "100"
+        )
+        @QueryParam("limit") @DefaultValue("100") int limit,
+
+        @Parameter(
+            description = "Cursor opaco de la cabecera X-Next-Cursor de la página anterior",
+            required = false
+        )
+        @QueryParam("cursor") String cursor,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "id,name,latitude,longitude"
+        )
+        @QueryParam("fields") String fields,
+
+        @Context UriInfo uriInfo) {
+        
         try {
-            List<WeatherStation> stations = weatherService.getAllStations();
-            return Response.ok(stations).build();
+            return pageResponse(StationRegistry.StationQuery.ALL, cursor, limit, fields, uriInfo);
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -59,6 +105,7 @@ public class StationsController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/{id}")
     @Operation(
         summary = "Obtener estación por ID",
@@ -88,7 +135,14 @@ public class StationsController {
             required = true,
             example = "STATION_001"
         )
-        @PathParam("id") String id) {
+        @PathParam("id") String id,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "id,name,latitude,longitude"
+        )
+        @QueryParam("fields") String fields) {
         
         try {
             Optional<WeatherStation> station = weatherService.getStationById(id);
@@ -97,7 +151,265 @@ public class StationsController {
                     .entity("{\"error\": \"Estación no encontrada\"}")
                     .build();
             }
-            return Response.ok(station.get()).build();
+            return fieldProjections.ok(station.get(), WeatherStation.class, fields).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @POST
+    @ConcurrencyLimited
+    @Operation(
+        summary = "Dar de alta una estación",
+        description = "Crea una estación meteorológica. Si no se indica id se asigna uno libre"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "201",
+            description = "Estación creada",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = WeatherStation.class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Datos de la estación inválidos"
+        ),
+        @APIResponse(
+            responseCode = "409",
+            description = "Ya existe una estación con ese id"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response createStation(WeatherStation station, @Context UriInfo uriInfo) {
+        try {
+            if (station == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"Se requieren los datos de la estación\"}")
+                    .build();
+            }
+            WeatherStation created = weatherService.createStation(station);
+            return Response.created(uriInfo.getAbsolutePathBuilder().path(created.getId()).build())
+                .entity(created)
+                .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/import")
+    @Consumes({"text/csv", "application/x-ndjson"})
+    @Operation(
+        summary = "Importar estaciones en bloque",
+        description = "Importa estaciones desde CSV (con cabecera) o NDJSON leyendo el cuerpo en streaming. " +
+                      "Las filas inválidas se rechazan y se informan; las estaciones con id existente se sustituyen. " +
+                      "En producción el cuerpo está limitado a 1 MB; los inventarios grandes se cargan al arrancar " +
+                      "con meteorologia.stations.import-file"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Importación completada",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = StationImporter.ImportResult.class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Cuerpo mal formado"
+        ),
+        @APIResponse(
+            responseCode = "413",
+            description = "Cuerpo mayor que quarkus.http.limits.max-body-size"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response importStations(InputStream body, @Context HttpHeaders headers) {
+        try {
+            StationImporter.Format format = "csv".equalsIgnoreCase(headers.getMediaType().getSubtype())
+                ? StationImporter.Format.CSV
+                : StationImporter.Format.NDJSON;
+            return Response.ok(stationImporter.importStations(body, format)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @PUT
+    @ConcurrencyLimited
+    @Path("/{id}")
+    @Operation(
+        summary = "Sustituir una estación",
+        description = "Reemplaza todos los datos de una estación meteorológica existente"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Estación actualizada",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = WeatherStation.class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Datos de la estación inválidos"
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Estación no encontrada"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response replaceStation(
+        @Parameter(
+            description = "ID único de la estación meteorológica",
+            required = true,
+            example = "STATION_001"
+        )
+        @PathParam("id") String id,
+        WeatherStation station) {
+
+        try {
+            if (station == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"Se requieren los datos de la estación\"}")
+                    .build();
+            }
+            return updated(weatherService.replaceStation(id, station));
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @PATCH
+    @ConcurrencyLimited
+    @Path("/{id}")
+    @Operation(
+        summary = "Actualizar parcialmente una estación",
+        description = "Modifica solo los campos presentes en el cuerpo"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Estación actualizada",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = WeatherStation.class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Datos de la estación inválidos"
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Estación no encontrada"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response patchStation(
+        @Parameter(
+            description = "ID único de la estación meteorológica",
+            required = true,
+            example = "STATION_001"
+        )
+        @PathParam("id") String id,
+        WeatherStation changes) {
+
+        try {
+            if (changes == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"Se requieren los campos a modificar\"}")
+                    .build();
+            }
+            return updated(weatherService.patchStation(id, changes));
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @DELETE
+    @ConcurrencyLimited
+    @Path("/{id}")
+    @Operation(
+        summary = "Dar de baja una estación",
+        description = "Elimina una estación meteorológica del catálogo"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "204",
+            description = "Estación dada de baja"
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Estación no encontrada"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response deleteStation(
+        @Parameter(
+            description = "ID único de la estación meteorológica",
+            required = true,
+            example = "STATION_001"
+        )
+        @PathParam("id") String id) {
+
+        try {
+            if (!weatherService.deleteStation(id)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Estación no encontrada\"}")
+                    .build();
+            }
+            return Response.noContent().build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -106,6 +418,7 @@ public class StationsController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/search/city/{city}")
     @Operation(
         summary = "Buscar estaciones por ciudad",
@@ -135,7 +448,29 @@ public class StationsController {
             required = true,
             example = "Madrid"
         )
-        @PathParam("city") String city) {
+        @PathParam("city") String city,
+
+        @Parameter(
+            description = "Número máximo de estaciones por página (1-1000)",
+            required = false,
+            example = "100"
+        )
+        @QueryParam("limit") @DefaultValue("100") int limit,
+
+        @Parameter(
+            description = "Cursor opaco de la cabecera X-Next-Cursor de la página anterior",
+            required = false
+        )
+        @QueryParam("cursor") String cursor,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "id,name,latitude,longitude"
+        )
+        @QueryParam("fields") String fields,
+
+        @Context UriInfo uriInfo) {
         
         try {
             if (city == null || city.trim().isEmpty()) {
@@ -144,8 +479,7 @@ public class StationsController {
                     .build();
             }
             
-            List<WeatherStation> stations = weatherService.getStationsByCity(city);
-            return Response.ok(stations).build();
+            return pageResponse(StationRegistry.StationQuery.byCity(city), cursor, limit, fields, uriInfo);
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -154,6 +488,7 @@ public class StationsController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/search/country/{country}")
     @Operation(
         summary = "Buscar estaciones por país",
@@ -183,7 +518,29 @@ public class StationsController {
             required = true,
             example = "España"
         )
-        @PathParam("country") String country) {
+        @PathParam("country") String country,
+
+        @Parameter(
+            description = "Número máximo de estaciones por página (1-1000)",
+            required = false,
+            example = "100"
+        )
+        @QueryParam("limit") @DefaultValue("100") int limit,
+
+        @Parameter(
+            description = "Cursor opaco de la cabecera X-Next-Cursor de la página anterior",
+            required = false
+        )
+        @QueryParam("cursor") String cursor,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "id,name,latitude,longitude"
+        )
+        @QueryParam("fields") String fields,
+
+        @Context UriInfo uriInfo) {
         
         try {
             if (country == null || country.trim().isEmpty()) {
@@ -192,8 +549,7 @@ public class StationsController {
                     .build();
             }
             
-            List<WeatherStation> stations = weatherService.getStationsByCountry(country);
-            return Response.ok(stations).build();
+            return pageResponse(StationRegistry.StationQuery.byCountry(country), cursor, limit, fields, uriInfo);
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -202,10 +558,93 @@ public class StationsController {
     }
 
     @GET
+    @ConcurrencyLimited
+    @Path("/search/fuzzy")
+    @Operation(
+        summary = "Búsqueda aproximada de estaciones",
+        description = "Busca por ciudad, región o país sin distinguir acentos ni mayúsculas y tolerando erratas " +
+                      "(p. ej. \"Cataluna\" o \"Barcelna\"). Los resultados se ordenan de más a menos parecidos"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Búsqueda completada exitosamente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = WeatherStation[].class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Parámetros inválidos"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response fuzzySearchStations(
+        @Parameter(
+            description = "Texto a buscar en ciudad, región o país",
+            required = true,
+            example = "Barcelna"
+        )
+        @QueryParam("q") String query,
+
+        @Parameter(
+            description = "Número máximo de ediciones toleradas (0-3)",
+            required = false,
+            example = "2"
+        )
+        @QueryParam("max_distance") @DefaultValue("2") int maxDistance,
+
+        @Parameter(
+            description = "Número máximo de estaciones (1-1000)",
+            required = false,
+            example = "20"
+        )
+        @QueryParam("limit") @DefaultValue("20") int limit,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "id,name,city,region"
+        )
+        @QueryParam("fields") String fields) {
+
+        try {
+            if (query == null || query.trim().isEmpty()) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El texto de búsqueda es requerido\"}")
+                    .build();
+            }
+            if (maxDistance < 0 || maxDistance > 3) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"La distancia máxima debe estar entre 0 y 3\"}")
+                    .build();
+            }
+            if (limit < 1 || limit > 1000) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El límite debe estar entre 1 y 1000\"}")
+                    .build();
+            }
+
+            List<WeatherStation> stations = weatherService.searchStationsFuzzy(query, maxDistance, limit);
+            return fieldProjections.ok(stations, WeatherStation.class, fields).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @GET
+    @ConcurrencyLimited
     @Path("/search")
     @Operation(
         summary = "Buscar estaciones con filtros múltiples",
-        description = "Busca estaciones meteorológicas usando múltiples criterios de filtrado"
+        description = "Busca estaciones meteorológicas usando múltiples criterios de filtrado. " +
+                      "Los resultados se paginan con limit y cursor"
     )
     @APIResponses({
         @APIResponse(
@@ -216,6 +655,10 @@ public class StationsController {
                 schema = @Schema(implementation = WeatherStation[].class)
             )
         ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Límite o cursor inválido"
+        ),
         @APIResponse(
             responseCode = "500",
             description = "Error interno del servidor"
@@ -248,37 +691,34 @@ public class StationsController {
             required = false,
             example = "AUTOMATICA"
         )
-        @QueryParam("type") String type) {
+        @QueryParam("type") String type,
+
+        @Parameter(
+            description = "Número máximo de estaciones por página (1-1000)",
+            required = false,
+            example = "100"
+        )
+        @QueryParam("limit") @DefaultValue("100") int limit,
+
+        @Parameter(
+            description = "Cursor opaco de la cabecera X-Next-Cursor de la página anterior",
+            required = false
+        )
+        @QueryParam("cursor") String cursor,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "id,name,latitude,longitude"
+        )
+        @QueryParam("fields") String fields,
+
+        @Context UriInfo uriInfo) {
         
         try {
-            List<WeatherStation> stations = weatherService.getAllStations();
-            
-            // Aplicar filtros si están presentes
-            if (city != null && !city.trim().isEmpty()) {
-                stations = stations.stream()
-                    .filter(s -> s.getCity().toLowerCase().contains(city.toLowerCase()))
-                    .toList();
-            }
-            
-            if (country != null && !country.trim().isEmpty()) {
-                stations = stations.stream()
-                    .filter(s -> s.getCountry().toLowerCase().contains(country.toLowerCase()))
-                    .toList();
-            }
-            
-            if (status != null && !status.trim().isEmpty()) {
-                stations = stations.stream()
-                    .filter(s -> s.getStatus().equalsIgnoreCase(status))
-                    .toList();
-            }
-            
-            if (type != null && !type.trim().isEmpty()) {
-                stations = stations.stream()
-                    .filter(s -> s.getStationType().equalsIgnoreCase(type))
-                    .toList();
-            }
-            
-            return Response.ok(stations).build();
+            // Los filtros vacíos se ignoran; el registro elige el índice más selectivo
+            StationRegistry.StationQuery query = new StationRegistry.StationQuery(city, country, status, type);
+            return pageResponse(query, cursor, limit, fields, uriInfo);
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -287,6 +727,7 @@ public class StationsController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/statistics")
     @Operation(
         summary = "Obtener estadísticas de estaciones",
@@ -318,6 +759,7 @@ public class StationsController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/nearby")
     @Operation(
         summary = "Buscar estaciones cercanas",
@@ -368,7 +810,14 @@ public class StationsController {
             required = false,
             example = "5"
         )
-        @QueryParam("limit") @DefaultValue("10") int limit) {
+        @QueryParam("limit") @DefaultValue("10") int limit,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "id,name,latitude,longitude"
+        )
+        @QueryParam("fields") String fields) {
         
         try {
             if (latitude == null || longitude == null) {
@@ -395,8 +844,11 @@ public class StationsController {
                     .build();
             }
             
-            // Implementación simple de búsqueda por proximidad
-            List<WeatherStation> nearbyStations = weatherService.getAllStations().stream()
+            // Búsqueda por proximidad sobre una instantánea inmutable del catálogo
+            StationSearchEvent event = new StationSearchEvent();
+            event.begin();
+            List<WeatherStation> stations = weatherService.getAllStations();
+            List<WeatherStation> nearbyStations = stations.stream()
                 .filter(station -> {
                     double distance = calculateDistance(
                         latitude, longitude,
@@ -411,8 +863,15 @@ public class StationsController {
                 })
                 .limit(limit)
                 .toList();
+            event.end();
+            if (event.shouldCommit()) {
+                event.kind = "nearby";
+                event.candidatesScanned = stations.size();
+                event.results = nearbyStations.size();
+                event.commit();
+            }
             
-            return Response.ok(nearbyStations).build();
+            return fieldProjections.ok(nearbyStations, WeatherStation.class, fields).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -420,6 +879,41 @@ public class StationsController {
         }
     }
 
+    private Response updated(Optional<WeatherStation> station) {
+        if (station.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"error\": \"Estación no encontrada\"}")
+                .build();
+        }
+        return Response.ok(station.get()).build();
+    }
+
+    private Response pageResponse(StationRegistry.StationQuery query, String cursor, int limit, String fields,
+                                  UriInfo uriInfo) throws Exception {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"El límite debe estar entre 1 y " + MAX_PAGE_SIZE + "\"}")
+                .build();
+        }
+
+        StationRegistry.Page page;
+        try {
+            page = weatherService.getStationsPage(query, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Cursor inválido\"}")
+                .build();
+        }
+
+        Response.ResponseBuilder response = fieldProjections.ok(page.items(), WeatherStation.class, fields);
+        if (page.nextCursor() != null) {
+            // El cursor de la siguiente página va en cabeceras para no cambiar el cuerpo (array)
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                .link(uriInfo.getRequestUriBuilder().replaceQueryParam("cursor", page.nextCursor()).build(), "next");
+        }
+        return response.build();
+    }
+
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
         final int R = 6371; // Radio de la Tierra en km
         double latDistance = Math.toRadians(lat2 - lat1);
@@ -1,8 +1,22 @@
 package com.meteorologia.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meteorologia.exception.GlobalExceptionHandler;
+import com.meteorologia.filter.ConcurrencyLimited;
+import com.meteorologia.model.HourlyForecast;
+import com.meteorologia.model.RegionalWeather;
 import com.meteorologia.model.WeatherData;
 import com.meteorologia.model.WeatherForecast;
+import com.meteorologia.model.WeatherTile;
+import com.meteorologia.model.WeatherStation;
+import com.meteorologia.service.FieldProjections;
+import com.meteorologia.service.HourlyForecastWriter;
+import com.meteorologia.service.RegionalAggregates;
+import com.meteorologia.service.RequestCoalescer;
+import com.meteorologia.service.StationRegistry;
+import com.meteorologia.service.WeatherExporter;
 import com.meteorologia.service.WeatherService;
+import com.meteorologia.service.WeatherTiles;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -16,8 +30,12 @@ import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Path("/api/weather")
 @Produces(MediaType.APPLICATION_JSON)
@@ -28,7 +46,29 @@ public class WeatherController {
     @Inject
     WeatherService weatherService;
 
+    @Inject
+    FieldProjections fieldProjections;
+
+    @Inject
+    WeatherExporter weatherExporter;
+
+    @Inject
+    WeatherTiles weatherTiles;
+
+    @Inject
+    RegionalAggregates regionalAggregates;
+
+    @Inject
+    HourlyForecastWriter hourlyForecastWriter;
+
+    @Inject
+    RequestCoalescer requestCoalescer;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     @GET
+    @ConcurrencyLimited
     @Path("/current/{stationId}")
     @Operation(
         summary = "Obtener clima actual por ID de estación",
@@ -58,16 +98,32 @@ public class WeatherController {
             required = true,
             example = "STATION_001"
         )
-        @PathParam("stationId") String stationId) {
+        @PathParam("stationId") String stationId,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "station_id,latitude,longitude,temperature,weather_icon"
+        )
+        @QueryParam("fields") String fields) {
         
         try {
-            WeatherData weatherData = weatherService.getCurrentWeather(stationId);
-            if (weatherData == null) {
+            // Peticiones idénticas simultáneas comparten generación y bytes serializados
+            String key = weatherService.currentTenant().getId() + ":current:" + stationId + ':' + fieldsKey(fields);
+            byte[] body = requestCoalescer.coalesce(key, () -> {
+                WeatherData weatherData = weatherService.getCurrentWeather(stationId);
+                return weatherData == null ? null : serialize(weatherData, WeatherData.class, fields);
+            });
+            if (body == null) {
                 return Response.status(Response.Status.NOT_FOUND)
                     .entity("{\"error\": \"Estación no encontrada\"}")
                     .build();
             }
-            return Response.ok(weatherData).build();
+            return Response.ok(body, MediaType.APPLICATION_JSON).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -76,6 +132,7 @@ public class WeatherController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/current")
     @Operation(
         summary = "Obtener clima actual por coordenadas",
@@ -112,7 +169,14 @@ public class WeatherController {
             required = true,
             example = "-3.7038"
         )
-        @QueryParam("lon") Double longitude) {
+        @QueryParam("lon") Double longitude,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "station_id,latitude,longitude,temperature,weather_icon"
+        )
+        @QueryParam("fields") String fields) {
         
         try {
             if (latitude == null || longitude == null) {
@@ -128,7 +192,7 @@ public class WeatherController {
             }
             
             WeatherData weatherData = weatherService.getCurrentWeatherByLocation(latitude, longitude);
-            return Response.ok(weatherData).build();
+            return fieldProjections.ok(weatherData, WeatherData.class, fields).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -137,6 +201,7 @@ public class WeatherController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/forecast/{stationId}")
     @Operation(
         summary = "Obtener pronóstico meteorológico por ID de estación",
@@ -177,7 +242,14 @@ public class WeatherController {
             required = false,
             example = "5"
         )
-        @QueryParam("days") @DefaultValue("5") int days) {
+        @QueryParam("days") @DefaultValue("5") int days,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "date,max_temperature,min_temperature,weather_icon"
+        )
+        @QueryParam("fields") String fields) {
         
         try {
             if (days < 1 || days > 10) {
@@ -186,14 +258,23 @@ public class WeatherController {
                     .build();
             }
             
-            List<WeatherForecast> forecast = weatherService.getForecast(stationId, days);
-            if (forecast.isEmpty()) {
+            String key = weatherService.currentTenant().getId() + ":forecast:" + stationId + ':' + days
+                + ':' + fieldsKey(fields);
+            byte[] body = requestCoalescer.coalesce(key, () -> {
+                List<WeatherForecast> forecast = weatherService.getForecast(stationId, days);
+                return forecast.isEmpty() ? null : serialize(forecast, WeatherForecast.class, fields);
+            });
+            if (body == null) {
                 return Response.status(Response.Status.NOT_FOUND)
                     .entity("{\"error\": \"Estación no encontrada\"}")
                     .build();
             }
             
-            return Response.ok(forecast).build();
+            return Response.ok(body, MediaType.APPLICATION_JSON).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -202,6 +283,7 @@ public class WeatherController {
     }
 
     @GET
+    @ConcurrencyLimited
     @Path("/forecast")
     @Operation(
         summary = "Obtener pronóstico meteorológico por coordenadas",
@@ -245,7 +327,14 @@ public class WeatherController {
             required = false,
             example = "5"
         )
-        @QueryParam("days") @DefaultValue("5") int days) {
+        @QueryParam("days") @DefaultValue("5") int days,
+
+        @Parameter(
+            description = "Campos a incluir en la respuesta, separados por comas",
+            required = false,
+            example = "date,max_temperature,min_temperature,weather_icon"
+        )
+        @QueryParam("fields") String fields) {
         
         try {
             if (latitude == null || longitude == null) {
@@ -267,7 +356,144 @@ public class WeatherController {
             }
             
             List<WeatherForecast> forecast = weatherService.getForecastByLocation(latitude, longitude, days);
-            return Response.ok(forecast).build();
+            return fieldProjections.ok(forecast, WeatherForecast.class, fields).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/forecast/hourly")
+    @Operation(
+        summary = "Obtener pronóstico horario de una o varias estaciones",
+        description = "Genera hasta 240 horas (10 días) de pronóstico por estación y las envía en streaming " +
+                      "como un único array JSON, punto a punto, sin materializar la respuesta completa"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Pronóstico horario generado",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = HourlyForecast[].class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Parámetros inválidos"
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Estación no encontrada"
+        )
+    })
+    public Response getHourlyForecast(
+        @Parameter(
+            description = "IDs de las estaciones, separados por comas (máximo 100)",
+            required = true,
+            example = "STATION_001,STATION_002"
+        )
+        @QueryParam("stations") String stations,
+
+        @Parameter(
+            description = "Número de horas para el pronóstico (1-240)",
+            required = false,
+            example = "240"
+        )
+        @QueryParam("hours") @DefaultValue("24") int hours) {
+
+        if (stations == null || stations.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Se requiere al menos una estación\"}")
+                .build();
+        }
+        if (hours < 1 || hours > HourlyForecastWriter.MAX_HOURS) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"El número de horas debe estar entre 1 y 240\"}")
+                .build();
+        }
+
+        LinkedHashSet<String> ids = new LinkedHashSet<>();
+        for (String id : stations.split(",")) {
+            if (!id.isBlank()) {
+                ids.add(id.trim());
+            }
+        }
+        if (ids.size() > HourlyForecastWriter.MAX_STATIONS) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Como máximo 100 estaciones por petición\"}")
+                .build();
+        }
+
+        // Las estaciones se resuelven antes de empezar a escribir para poder responder 404
+        StationRegistry registry = weatherService.getStationSnapshot();
+        List<WeatherStation> resolved = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Optional<WeatherStation> station = registry.findById(id);
+            if (station.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity(GlobalExceptionHandler.errorBody("Estación no encontrada: " + id))
+                    .build();
+            }
+            resolved.add(station.get());
+        }
+
+        StreamingOutput body = out -> hourlyForecastWriter.write(out, resolved, hours);
+        return Response.ok(body, MediaType.APPLICATION_JSON).build();
+    }
+
+    @GET
+    @ConcurrencyLimited
+    @Path("/tiles/{z}/{x}/{y}")
+    @Operation(
+        summary = "Obtener el tiempo agregado de una tesela",
+        description = "Retorna la temperatura media, el icono predominante y el número de estaciones " +
+                      "de la tesela XYZ (Web Mercator). Los agregados se recalculan una vez por tick"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Tesela obtenida exitosamente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = WeatherTile.class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Tesela inválida"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response getTile(
+        @Parameter(description = "Nivel de zoom (0-22)", required = true, example = "6")
+        @PathParam("z") int z,
+
+        @Parameter(description = "Columna de la tesela", required = true, example = "31")
+        @PathParam("x") int x,
+
+        @Parameter(description = "Fila de la tesela", required = true, example = "24")
+        @PathParam("y") int y) {
+
+        try {
+            WeatherTiles.ServedTile served = weatherTiles.tile(z, x, y);
+            // Los agregados no cambian hasta el siguiente tick; los del tick anterior, servidos
+            // mientras se reconstruye la pirámide, no se deben guardar
+            long maxAge = weatherTiles.maxAgeSeconds(served.tick());
+            return Response.ok(served.tile())
+                .header("Cache-Control", maxAge > 0 ? "public, max-age=" + maxAge : "no-cache")
+                // Cada inquilino tiene su propia pirámide: una caché compartida no debe mezclarlas
+                .header("Vary", "X-Tenant")
+                .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()))
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Error interno del servidor\"}")
@@ -275,6 +501,116 @@ public class WeatherController {
         }
     }
 
+    @GET
+    @ConcurrencyLimited
+    @Path("/aggregates")
+    @Operation(
+        summary = "Obtener el tiempo agregado por país o región",
+        description = "Retorna media, mínimo y máximo de temperatura, humedad y precipitación de las " +
+                      "lecturas actuales agrupadas por país o por región. Se recalcula una vez por tick"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Agregados obtenidos exitosamente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = RegionalWeather[].class)
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Agrupación no soportada"
+        ),
+        @APIResponse(
+            responseCode = "500",
+            description = "Error interno del servidor"
+        )
+    })
+    public Response getAggregates(
+        @Parameter(
+            description = "Agrupación: country o region",
+            required = false,
+            example = "country"
+        )
+        @QueryParam("group_by") @DefaultValue("country") String groupBy) {
+
+        RegionalAggregates.GroupBy grouping;
+        try {
+            grouping = RegionalAggregates.GroupBy.valueOf(groupBy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Agrupación no soportada: use country o region\"}")
+                .build();
+        }
+
+        try {
+            List<RegionalWeather> aggregates = regionalAggregates.aggregate(grouping);
+            return Response.ok(aggregates)
+                .header("Cache-Control", "public, max-age=" + weatherTiles.secondsToNextBucket())
+                .header("Vary", "X-Tenant")
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Error interno del servidor\"}")
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/export")
+    @Produces({"text/csv", WeatherExporter.COLUMNAR_MEDIA_TYPE})
+    @Operation(
+        summary = "Exportar la lectura actual de todas las estaciones",
+        description = "Vuelca en streaming los datos de cada estación y su lectura actual, en CSV " +
+                      "o en un formato binario columnar generado por trozos desde buffers primitivos"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Volcado generado"
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Formato no soportado"
+        )
+    })
+    public Response export(
+        @Parameter(
+            description = "Formato del volcado: csv o columnar",
+            required = false,
+            example = "csv"
+        )
+        @QueryParam("format") @DefaultValue("csv") String format) {
+
+        WeatherExporter.Format exportFormat;
+        try {
+            exportFormat = WeatherExporter.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Formato no soportado: use csv o columnar\"}")
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+        }
+
+        StreamingOutput body = out -> weatherExporter.export(out, exportFormat);
+        boolean csv = exportFormat == WeatherExporter.Format.CSV;
+        return Response.ok(body, csv ? "text/csv; charset=UTF-8" : WeatherExporter.COLUMNAR_MEDIA_TYPE)
+            .header("Content-Disposition", "attachment; filename=\"weather-current." + (csv ? "csv" : "mcol") + "\"")
+            .build();
+    }
+
+    private byte[] serialize(Object entity, Class<?> modelType, String fields) throws Exception {
+        if (fields == null || fields.trim().isEmpty()) {
+            return objectMapper.writeValueAsBytes(entity);
+        }
+        return fieldProjections.write(entity, modelType, fields);
+    }
+
+    private static String fieldsKey(String fields) {
+        return fields == null ? "" : fields.trim();
+    }
+
     @GET
     @Path("/health")
     @Operation(
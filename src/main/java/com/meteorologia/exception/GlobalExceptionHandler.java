@@ -1,5 +1,6 @@
 package com.meteorologia.exception;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
@@ -69,6 +70,14 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
             .build();
     }
     
+    /**
+     * Cuerpo {@code {"error": "..."}} de las respuestas de error de los recursos, con el
+     * mensaje escapado para los casos en que incluye datos de la petición.
+     */
+    public static String errorBody(String message) {
+        return "{\"error\": \"" + new String(JsonStringEncoder.getInstance().quoteAsString(message)) + "\"}";
+    }
+
     private String getStackTraceAsString(Exception exception) {
         java.io.StringWriter sw = new java.io.StringWriter();
         java.io.PrintWriter pw = new java.io.PrintWriter(sw);
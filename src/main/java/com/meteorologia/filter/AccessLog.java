@@ -0,0 +1,222 @@
+package com.meteorologia.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log de accesos asíncrono sobre un buffer circular sin bloqueos.
+ *
+ * En el camino de la petición solo se reserva un hueco con un CAS sobre la cola
+ * y se copian en él campos primitivos y referencias ya existentes (método, ruta,
+ * recurso, estación); {@link #record} no formatea ni crea objetos. Lo que sí se
+ * crea por petición está en {@link AccessLogFilter}: el manejador de fin de la
+ * respuesta y el mapa de parámetros de ruta para sacar la estación. Un hilo de fondo
+ * vacía el buffer por lotes, formatea cada línea en un {@link StringBuilder}
+ * reutilizado y la escribe en la categoría {@code com.meteorologia.access}.
+ * Si el buffer está lleno el registro se descarta y se cuenta: quien registra
+ * nunca espera.
+ *
+ * Cada hueco lleva un número de secuencia (cola acotada de Vyukov): vale la
+ * posición cuando está libre y la posición + 1 cuando está publicado, y la
+ * escritura volátil de la secuencia publica los campos del hueco.
+ */
+@ApplicationScoped
+public class AccessLog {
+
+    private static final Logger LOG = Logger.getLogger("com.meteorologia.access");
+
+    @ConfigProperty(name = "meteorologia.access-log.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // Se redondea a la potencia de dos siguiente
+    @ConfigProperty(name = "meteorologia.access-log.capacity", defaultValue = "8192")
+    int requestedCapacity;
+
+    @ConfigProperty(name = "meteorologia.access-log.flush-interval-ms", defaultValue = "200")
+    long flushIntervalMs;
+
+    @Inject
+    MeterRegistry registry;
+
+    private int mask;
+    private AtomicLongArray sequences;
+    private long[] timestamps;
+    private long[] latencies;
+    private long[] bytes;
+    private int[] statuses;
+    private String[] methods;
+    private String[] paths;
+    private SimpleResourceInfo[] resources;
+    private String[] stations;
+
+    private final AtomicLong tail = new AtomicLong();
+    // Solo lo escribe el hilo de fondo; volátil para la métrica de pendientes
+    private volatile long head;
+
+    private Counter written;
+    private Counter dropped;
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    void init() {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        mask = capacity - 1;
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        timestamps = new long[capacity];
+        latencies = new long[capacity];
+        bytes = new long[capacity];
+        statuses = new int[capacity];
+        methods = new String[capacity];
+        paths = new String[capacity];
+        resources = new SimpleResourceInfo[capacity];
+        stations = new String[capacity];
+
+        written = Counter.builder("meteorologia.access_log.written")
+            .description("Líneas del log de accesos escritas")
+            .register(registry);
+        dropped = Counter.builder("meteorologia.access_log.dropped")
+            .description("Registros de acceso descartados por buffer lleno")
+            .register(registry);
+        Gauge.builder("meteorologia.access_log.backlog", this, AccessLog::backlog)
+            .description("Registros de acceso pendientes de escribir")
+            .register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+        if (writer != null) {
+            running = false;
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Encola un acceso. Devuelve {@code false} (y lo cuenta) si el buffer está lleno.
+     */
+    public boolean record(String method, String path, SimpleResourceInfo resource, String station,
+                          int status, long latencyNanos, long bytesWritten) {
+        long pos = tail.get();
+        while (true) {
+            int slot = (int) (pos & mask);
+            long diff = sequences.get(slot) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // El hilo de fondo aún no ha liberado este hueco: buffer lleno
+                dropped.increment();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+        int slot = (int) (pos & mask);
+        timestamps[slot] = System.currentTimeMillis();
+        methods[slot] = method;
+        paths[slot] = path;
+        resources[slot] = resource;
+        stations[slot] = station;
+        statuses[slot] = status;
+        latencies[slot] = latencyNanos;
+        bytes[slot] = bytesWritten;
+        sequences.set(slot, pos + 1);
+        return true;
+    }
+
+    private double backlog() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        while (running) {
+            if (drain(line) == 0) {
+                LockSupport.parkNanos(parkNanos);
+            }
+        }
+        drain(line);
+    }
+
+    // Escribe todo lo publicado hasta ahora; devuelve el número de líneas
+    private int drain(StringBuilder line) {
+        int count = 0;
+        while (true) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            line.setLength(0);
+            format(line, slot);
+            // Se sueltan las referencias antes de liberar el hueco
+            paths[slot] = null;
+            resources[slot] = null;
+            stations[slot] = null;
+            sequences.set(slot, head + mask + 1);
+            head++;
+            LOG.info(line.toString());
+            count++;
+        }
+        if (count > 0) {
+            written.increment(count);
+        }
+        return count;
+    }
+
+    private void format(StringBuilder line, int slot) {
+        line.append("time=").append(Instant.ofEpochMilli(timestamps[slot]))
+            .append(" method=").append(methods[slot])
+            .append(" path=").append(paths[slot]);
+        SimpleResourceInfo resource = resources[slot];
+        if (resource != null) {
+            line.append(" endpoint=").append(resource.getResourceClass().getSimpleName())
+                .append('.').append(resource.getMethodName());
+        }
+        if (stations[slot] != null) {
+            line.append(" station=").append(stations[slot]);
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(latencies[slot]);
+        line.append(" status=").append(statuses[slot])
+            .append(" latency_ms=").append(micros / 1000).append('.')
+            .append((char) ('0' + micros % 1000 / 100))
+            .append((char) ('0' + micros % 100 / 10))
+            .append((char) ('0' + micros % 10))
+            .append(" bytes=").append(bytes[slot]);
+    }
+}
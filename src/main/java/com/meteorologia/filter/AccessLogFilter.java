@@ -0,0 +1,55 @@
+package com.meteorologia.filter;
+
+import com.meteorologia.controller.StationsController;
+import io.vertx.ext.web.RoutingContext;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.core.UriInfo;
+
+public class AccessLogFilter {
+
+    private static final String RESOURCE = AccessLogFilter.class.getName() + ".resource";
+    private static final String STATION = AccessLogFilter.class.getName() + ".station";
+
+    @Inject
+    AccessLog accessLog;
+
+    // El primero de todos: también quedan registradas las peticiones que cortan
+    // la limitación por cliente, la inyección de fallos o el límite de concurrencia
+    @ServerRequestFilter(preMatching = true, priority = Priorities.USER - 100)
+    public void start(RoutingContext routingContext) {
+        if (!accessLog.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        routingContext.addEndHandler(result -> accessLog.record(
+            routingContext.request().method().name(),
+            routingContext.normalizedPath(),
+            routingContext.get(RESOURCE),
+            routingContext.get(STATION),
+            routingContext.response().getStatusCode(),
+            System.nanoTime() - start,
+            routingContext.response().bytesWritten()));
+    }
+
+    // Antes de escribir la respuesta: recurso y estación de la petición, sin formatear la línea.
+    // Si la petición no llegó a emparejarse no hay recurso y la línea sale sin él
+    @ServerResponseFilter
+    public void matched(RoutingContext routingContext, SimpleResourceInfo resourceInfo, UriInfo uriInfo) {
+        if (!accessLog.isEnabled() || resourceInfo == null || resourceInfo.getResourceClass() == null) {
+            return;
+        }
+        routingContext.put(RESOURCE, resourceInfo);
+        String station = uriInfo.getPathParameters().getFirst("stationId");
+        if (station == null && resourceInfo.getResourceClass() == StationsController.class) {
+            station = uriInfo.getPathParameters().getFirst("id");
+        }
+        if (station != null) {
+            routingContext.put(STATION, station);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.meteorologia.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de concurrencia adaptativo guiado por el gradiente de la latencia.
+ *
+ * Las muestras se agrupan en ventanas (al menos {@code window-ms} y {@code min-window-samples}
+ * peticiones) y el límite se ajusta una sola vez al cerrar cada ventana. Se compara la latencia media de la ventana con una referencia de largo
+ * plazo: si sube por encima de la tolerancia el límite se reduce en proporción (como
+ * mucho a la mitad por ventana); si no, crece en la raíz del límite, siempre que se
+ * esté usando. Una ventana con respuestas 5xx lo reduce una vez por {@code backoff-ratio}.
+ * Por encima del límite las peticiones se rechazan en el acto en lugar de esperar en
+ * la cola de workers.
+ */
+@ApplicationScoped
+public class AdaptiveConcurrencyLimiter {
+
+    @ConfigProperty(name = "meteorologia.concurrency.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "meteorologia.concurrency.initial-limit", defaultValue = "20")
+    int initialLimit;
+
+    @ConfigProperty(name = "meteorologia.concurrency.min-limit", defaultValue = "2")
+    int minLimit;
+
+    @ConfigProperty(name = "meteorologia.concurrency.max-limit", defaultValue = "200")
+    int maxLimit;
+
+    @ConfigProperty(name = "meteorologia.concurrency.window-ms", defaultValue = "1000")
+    long windowMs;
+
+    @ConfigProperty(name = "meteorologia.concurrency.min-window-samples", defaultValue = "10")
+    int minWindowSamples;
+
+    @ConfigProperty(name = "meteorologia.concurrency.rtt-tolerance", defaultValue = "1.5")
+    double rttTolerance;
+
+    @ConfigProperty(name = "meteorologia.concurrency.long-window", defaultValue = "20")
+    int longWindow;
+
+    @ConfigProperty(name = "meteorologia.concurrency.smoothing", defaultValue = "0.2")
+    double smoothing;
+
+    @ConfigProperty(name = "meteorologia.concurrency.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private volatile double limit;
+    private long windowNanos;
+    private Counter rejected;
+
+    // Ventana en curso y referencia de largo plazo, protegidas por el monitor de adjust
+    private long windowStart = System.nanoTime();
+    private int windowSamples;
+    private long windowLatencyNanos;
+    private int windowMaxInFlight;
+    private boolean windowFailed;
+    private double longRttNanos;
+
+    @PostConstruct
+    void init() {
+        limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        Gauge.builder("meteorologia.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Límite adaptativo de peticiones concurrentes")
+            .register(registry);
+        Gauge.builder("meteorologia.concurrency.in_flight", inFlight, AtomicInteger::get)
+            .description("Peticiones en curso bajo el límite de concurrencia")
+            .register(registry);
+        rejected = Counter.builder("meteorologia.concurrency.rejected")
+            .description("Peticiones rechazadas por saturación")
+            .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedCount() {
+        return (long) rejected.count();
+    }
+
+    /**
+     * Reserva un hueco si hay capacidad.
+     *
+     * @return instante de inicio (nanoTime) a pasar a {@link #release}, o -1 si se rechaza
+     */
+    public long tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return System.nanoTime();
+            }
+        }
+    }
+
+    public void release(long startNanos, boolean success) {
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        long latency = System.nanoTime() - startNanos;
+        adjust(latency, success, inFlightAtEnd);
+    }
+
+    private synchronized void adjust(long latencyNanos, boolean success, int inFlightAtEnd) {
+        // La ventana se cierra antes de contar la muestra que llega tarde: cada ventana
+        // solo refleja las peticiones que terminaron dentro de ella
+        long now = System.nanoTime();
+        if (windowSamples >= minWindowSamples && now - windowStart >= windowNanos) {
+            closeWindow();
+            windowStart = now;
+            windowSamples = 0;
+            windowLatencyNanos = 0;
+            windowMaxInFlight = 0;
+            windowFailed = false;
+        }
+        windowSamples++;
+        windowLatencyNanos += latencyNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtEnd);
+        windowFailed |= !success;
+    }
+
+    private void closeWindow() {
+        double shortRtt = Math.max(1, (double) windowLatencyNanos / windowSamples);
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) / longWindow;
+            // Si la carga ha bajado la referencia no se queda anclada en la latencia antigua
+            if (longRttNanos > 2 * shortRtt) {
+                longRttNanos *= 0.95;
+            }
+        }
+
+        if (windowFailed) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        if (windowMaxInFlight * 2 < limit) {
+            // Límite sin aprovechar: la latencia no dice nada sobre él
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+}
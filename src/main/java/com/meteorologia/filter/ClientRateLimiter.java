@@ -0,0 +1,143 @@
+package com.meteorologia.filter;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Vertx;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets por cliente, sin bloqueos.
+ *
+ * El estado de cada bucket cabe en un {@code long} (instante del último
+ * relleno en ms y mili-tokens disponibles) que se actualiza con CAS. El mapa
+ * está acotado: los buckets inactivos se purgan periódicamente y, si aun así
+ * se alcanza el máximo, los clientes nuevos comparten un bucket de desbordamiento.
+ */
+@ApplicationScoped
+public class ClientRateLimiter {
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    @ConfigProperty(name = "meteorologia.rate-limit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "meteorologia.rate-limit.capacity", defaultValue = "50")
+    int capacity;
+
+    @ConfigProperty(name = "meteorologia.rate-limit.refill-per-second", defaultValue = "20")
+    double refillPerSecond;
+
+    @ConfigProperty(name = "meteorologia.rate-limit.max-clients", defaultValue = "10000")
+    int maxClients;
+
+    @ConfigProperty(name = "meteorologia.rate-limit.idle-seconds", defaultValue = "300")
+    long idleSeconds;
+
+    // Claves de API con bucket propio; cualquier otra cabecera X-API-Key se ignora
+    @ConfigProperty(name = "meteorologia.rate-limit.api-keys")
+    Optional<Set<String>> apiKeys;
+
+    @Inject
+    Vertx vertx;
+
+    private final long origin = System.nanoTime();
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong();
+    private long maxMilliTokens;
+    private long sweepTimer = -1;
+
+    @PostConstruct
+    void init() {
+        maxMilliTokens = Math.min((long) capacity * MILLI, TOKEN_MASK);
+        overflow.set(pack(now(), maxMilliTokens));
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        sweepTimer = vertx.setPeriodic(TimeUnit.SECONDS.toMillis(Math.max(1, idleSeconds / 4)), id -> sweep());
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (sweepTimer >= 0) {
+            vertx.cancelTimer(sweepTimer);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Solo las claves configuradas identifican al cliente: si no, bastaría con inventarse
+     * una clave por petición para estrenar un bucket lleno cada vez.
+     */
+    public boolean isKnownKey(String apiKey) {
+        return apiKeys.map(keys -> keys.contains(apiKey)).orElse(false);
+    }
+
+    /**
+     * Consume un token del cliente.
+     *
+     * @return 0 si se admite la petición; si no, los milisegundos hasta que haya un token
+     */
+    public long tryAcquire(String client) {
+        AtomicLong bucket = bucketFor(client);
+        while (true) {
+            long state = bucket.get();
+            long now = now();
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            long refilled = Math.min(maxMilliTokens, tokens + (long) ((now - last) * refillPerSecond));
+            if (refilled < MILLI) {
+                return (long) Math.ceil((MILLI - refilled) / refillPerSecond);
+            }
+            if (bucket.compareAndSet(state, pack(now, refilled - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Vacía todos los buckets: cada cliente vuelve a empezar con el bucket lleno.
+     */
+    public void reset() {
+        buckets.clear();
+        overflow.set(pack(now(), maxMilliTokens));
+    }
+
+    private AtomicLong bucketFor(String client) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(client, k -> new AtomicLong(pack(now(), maxMilliTokens)));
+    }
+
+    private void sweep() {
+        // Un bucket lleno y sin uso desde hace idleSeconds equivale a uno nuevo: se puede descartar
+        long idleBefore = now() - TimeUnit.SECONDS.toMillis(idleSeconds);
+        buckets.values().removeIf(bucket -> (bucket.get() >>> TOKEN_BITS) < idleBefore);
+    }
+
+    private long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+    }
+
+    private static long pack(long millis, long milliTokens) {
+        return (millis << TOKEN_BITS) | milliTokens;
+    }
+}
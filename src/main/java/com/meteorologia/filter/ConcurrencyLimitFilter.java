@@ -0,0 +1,62 @@
+package com.meteorologia.filter;
+
+import io.vertx.ext.web.RoutingContext;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConcurrencyLimitFilter {
+
+    private static final String RELEASE = ConcurrencyLimitFilter.class.getName() + ".release";
+
+    @Inject
+    AdaptiveConcurrencyLimiter limiter;
+
+    // nonBlocking: se ejecuta en el event loop aunque el recurso sea bloqueante,
+    // así una petición rechazada nunca llega a ocupar la cola de workers
+    @ConcurrencyLimited
+    @ServerRequestFilter(nonBlocking = true)
+    public Response filter(RoutingContext routingContext) {
+        if (!limiter.isEnabled()) {
+            return null;
+        }
+
+        long start = limiter.tryAcquire();
+        if (start < 0) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", 1)
+                .entity("{\"error\": \"Servicio saturado, inténtelo más tarde\"}")
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+        }
+
+        // Se libera al terminar la respuesta o al cerrarse la conexión, pase lo que pase,
+        // o antes si quien escribe el cuerpo lo pide con releaseEarly
+        AtomicBoolean released = new AtomicBoolean();
+        routingContext.put(RELEASE, (Runnable) () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(start, routingContext.response().getStatusCode() < 500);
+            }
+        });
+        routingContext.addEndHandler(result -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(start, result.succeeded() && routingContext.response().getStatusCode() < 500);
+            }
+        });
+        return null;
+    }
+
+    /**
+     * Devuelve el hueco de la petición antes de que termine la respuesta, para cuerpos
+     * cuya duración no depende de la carga. La latencia cuenta hasta este momento.
+     */
+    public static void releaseEarly(RoutingContext routingContext) {
+        Runnable release = routingContext.get(RELEASE);
+        if (release != null) {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.meteorologia.filter;
+
+import jakarta.ws.rs.NameBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca los recursos protegidos por el límite adaptativo de concurrencia.
+ *
+ * Se pone método a método: el health check, los volcados, los flujos y las
+ * importaciones duran lo que duran por su tamaño, no por la carga, y su latencia
+ * falsearía el gradiente del límite.
+ */
+@NameBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+}
@@ -17,9 +17,10 @@ public class CorsFilter implements ContainerResponseFilter {
         responseContext.getHeaders().add("Access-Control-Allow-Origin", "*");
         responseContext.getHeaders().add("Access-Control-Allow-Credentials", "true");
         responseContext.getHeaders().add("Access-Control-Allow-Headers", 
-            "origin, content-type, accept, authorization, x-requested-with");
+            "origin, content-type, accept, authorization, x-requested-with, x-api-key, x-tenant");
         responseContext.getHeaders().add("Access-Control-Allow-Methods", 
-            "GET, POST, PUT, DELETE, OPTIONS, HEAD");
+            "GET, POST, PUT, PATCH, DELETE, OPTIONS, HEAD");
+        responseContext.getHeaders().add("Access-Control-Expose-Headers", "X-Next-Cursor, Link, Retry-After");
         responseContext.getHeaders().add("Access-Control-Max-Age", "3600");
         
         // Agregar headers de seguridad adicionales
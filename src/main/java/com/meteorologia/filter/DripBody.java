@@ -0,0 +1,7 @@
+package com.meteorologia.filter;
+
+/**
+ * Cuerpo ya serializado que se envía en trozos espaciados (modo goteo).
+ */
+public record DripBody(byte[] bytes, int chunkBytes, long intervalMillis) {
+}
@@ -0,0 +1,73 @@
+package com.meteorologia.filter;
+
+import io.vertx.core.Vertx;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerHttpResponse;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * Escribe un {@link DripBody} trozo a trozo con temporizadores de Vert.x, sin
+ * bloquear ningún hilo entre trozos.
+ */
+@Provider
+@Produces(MediaType.WILDCARD)
+public class DripBodyWriter implements ServerMessageBodyWriter<DripBody> {
+
+    @Inject
+    Vertx vertx;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target,
+                               MediaType mediaType) {
+        return DripBody.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return DripBody.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeResponse(DripBody body, Type genericType, ServerRequestContext context) {
+        ServerHttpResponse response = context.serverResponse();
+        response.setChunked(true);
+        writeChunk(response, body, 0);
+    }
+
+    private void writeChunk(ServerHttpResponse response, DripBody body, int offset) {
+        if (response.closed()) {
+            return;
+        }
+        int end = Math.min(body.bytes().length, offset + Math.max(1, body.chunkBytes()));
+        byte[] chunk = Arrays.copyOfRange(body.bytes(), offset, end);
+        if (end == body.bytes().length) {
+            response.end(chunk);
+            return;
+        }
+        response.write(chunk).whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                vertx.setTimer(Math.max(1, body.intervalMillis()), id -> writeChunk(response, body, end));
+            }
+        });
+    }
+
+    @Override
+    public void writeTo(DripBody body, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        // Fuera de RESTEasy Reactive no hay temporizadores: se escribe de una vez
+        entityStream.write(body.bytes());
+    }
+}
@@ -0,0 +1,91 @@
+package com.meteorologia.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meteorologia.model.FaultProfile;
+import com.meteorologia.service.FaultInjector;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.RoutingContext;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class FaultInjectionFilter {
+
+    private static final String DRIP_PROPERTY = FaultInjectionFilter.class.getName() + ".drip";
+
+    @Inject
+    FaultInjector faultInjector;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Vertx vertx;
+
+    // Tras la limitación por cliente y antes del límite de concurrencia: la espera
+    // inyectada es un temporizador de Vert.x y no ocupa ni workers ni huecos. El goteo
+    // del cuerpo tampoco: el hueco se devuelve antes de empezar a gotear
+    @ServerRequestFilter(preMatching = true, priority = Priorities.USER + 100)
+    public Uni<Response> injectFaults(ContainerRequestContext requestContext) {
+        String path = requestContext.getUriInfo().getPath();
+        FaultProfile profile = path.startsWith("/api/admin/") ? null
+            : faultInjector.match(requestContext.getMethod(), path);
+        if (profile == null) {
+            return Uni.createFrom().nullItem();
+        }
+
+        if (profile.getDripChunkBytes() > 0) {
+            requestContext.setProperty(DRIP_PROPERTY, profile);
+        }
+        Response failure = faultInjector.shouldFail(profile) ? failure(profile) : null;
+        long delay = faultInjector.sampleLatencyMillis(profile);
+        if (delay == 0) {
+            return Uni.createFrom().item(failure);
+        }
+        return Uni.createFrom().emitter(emitter -> vertx.setTimer(delay, id -> emitter.complete(failure)));
+    }
+
+    @ServerResponseFilter
+    public void dripBody(ContainerRequestContext requestContext, ContainerResponseContext responseContext,
+                         RoutingContext routingContext) throws IOException {
+        Object property = requestContext.getProperty(DRIP_PROPERTY);
+        if (!(property instanceof FaultProfile profile) || !responseContext.hasEntity()) {
+            return;
+        }
+
+        Object entity = responseContext.getEntity();
+        if (entity instanceof StreamingOutput || entity instanceof Multi<?>) {
+            // Los volcados y flujos de eventos no se materializan en memoria
+            return;
+        }
+        byte[] body;
+        if (entity instanceof byte[] bytes) {
+            body = bytes;
+        } else if (entity instanceof String text) {
+            body = text.getBytes(StandardCharsets.UTF_8);
+        } else {
+            body = objectMapper.writeValueAsBytes(entity);
+        }
+        responseContext.setEntity(new DripBody(body, profile.getDripChunkBytes(), profile.getDripIntervalMs()));
+        // El goteo es lento a propósito: ni ocupa hueco ni cuenta como latencia del servicio
+        ConcurrencyLimitFilter.releaseEarly(routingContext);
+    }
+
+    private static Response failure(FaultProfile profile) {
+        return Response.status(profile.getErrorStatus())
+            .entity("{\"error\": \"Fallo inyectado\", \"status\": " + profile.getErrorStatus() + "}")
+            .type(MediaType.APPLICATION_JSON)
+            .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.meteorologia.filter;
+
+import io.vertx.core.http.HttpServerRequest;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+public class RateLimitFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+
+    @Inject
+    ClientRateLimiter rateLimiter;
+
+    // Pre-matching: se decide en el event loop, antes de despachar el método del recurso a un worker
+    @ServerRequestFilter(preMatching = true)
+    public Response filter(ContainerRequestContext requestContext, HttpServerRequest request) {
+        if (!rateLimiter.isEnabled() || !requestContext.getUriInfo().getPath().startsWith("/api/")) {
+            return null;
+        }
+
+        long retryAfterMillis = rateLimiter.tryAcquire(clientIdentity(requestContext, request));
+        if (retryAfterMillis == 0) {
+            return null;
+        }
+
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+            .header("Retry-After", Math.max(1, (retryAfterMillis + 999) / 1000))
+            .entity("{\"error\": \"Demasiadas peticiones, inténtelo más tarde\"}")
+            .type(MediaType.APPLICATION_JSON)
+            .build();
+    }
+
+    private String clientIdentity(ContainerRequestContext requestContext, HttpServerRequest request) {
+        String apiKey = requestContext.getHeaderString(API_KEY_HEADER);
+        if (apiKey != null && rateLimiter.isKnownKey(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return request.remoteAddress() != null ? "ip:" + request.remoteAddress().hostAddress() : "ip:unknown";
+    }
+}
@@ -0,0 +1,137 @@
+package com.meteorologia.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meteorologia.service.ResponseArchive;
+import io.smallrye.mutiny.Multi;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class ReplayFilter {
+
+    static final String REPLAY_HEADER = "X-Replay";
+
+    private static final String KEY_PROPERTY = ReplayFilter.class.getName() + ".key";
+
+    // Las calcula el servidor al escribir, o las pone CorsFilter según el Origin de cada petición
+    private static final Set<String> UNRECORDED_HEADERS = Set.of(
+        "content-length", "transfer-encoding", "connection", "date", REPLAY_HEADER.toLowerCase());
+
+    @Inject
+    ResponseArchive archive;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // Después de la inyección de fallos, para poder simular latencia también sobre respuestas grabadas
+    @ServerRequestFilter(preMatching = true, priority = Priorities.USER + 200)
+    public Response replay(ContainerRequestContext requestContext) {
+        if (archive.getMode() == ResponseArchive.Mode.OFF) {
+            return null;
+        }
+        String path = requestContext.getUriInfo().getPath();
+        // Solo lecturas: las escrituras del catálogo no se graban ni se reproducen
+        if (!"GET".equals(requestContext.getMethod()) || !path.startsWith("/api/") || path.startsWith("/api/admin/")) {
+            return null;
+        }
+
+        String key = ResponseArchive.key(requestContext.getMethod(), path,
+            canonicalQuery(requestContext.getUriInfo().getQueryParameters()));
+        // Cada inquilino tiene su propio catálogo: sus respuestas se graban aparte
+        String tenant = requestContext.getHeaderString(TenantFilter.TENANT_HEADER);
+        if (tenant != null && !tenant.isEmpty()) {
+            key = key + " @" + tenant;
+        }
+        if (archive.getMode() == ResponseArchive.Mode.RECORD) {
+            requestContext.setProperty(KEY_PROPERTY, key);
+            return null;
+        }
+
+        ResponseArchive.Replayed replayed = archive.lookup(key);
+        if (replayed == null) {
+            return null;
+        }
+        Response.ResponseBuilder response = Response.status(replayed.status())
+            .entity(new ReplayedBody(replayed.body()));
+        replayed.headers().forEach((name, values) -> values.forEach(value -> response.header(name, value)));
+        return response
+            .header(REPLAY_HEADER, "hit")
+            .build();
+    }
+
+    @ServerResponseFilter
+    public void record(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+            throws IOException {
+        if (!(requestContext.getProperty(KEY_PROPERTY) instanceof String key)
+                || responseContext.getStatus() / 100 != 2 || !responseContext.hasEntity()) {
+            return;
+        }
+
+        Object entity = responseContext.getEntity();
+        if (entity instanceof StreamingOutput || entity instanceof Multi<?>) {
+            // Los volcados y flujos de eventos no se materializan en memoria
+            return;
+        }
+        byte[] body;
+        if (entity instanceof DripBody drip) {
+            body = drip.bytes();
+        } else if (entity instanceof byte[] bytes) {
+            body = bytes;
+        } else if (entity instanceof String text) {
+            body = text.getBytes(StandardCharsets.UTF_8);
+        } else {
+            body = objectMapper.writeValueAsBytes(entity);
+            // Se reutiliza lo ya serializado para no generar el JSON dos veces
+            responseContext.setEntity(body);
+        }
+        archive.record(key, recordedHeaders(responseContext), responseContext.getStatus(), body);
+    }
+
+    // Cabeceras que forman parte de la respuesta (cursores, Link, caché, Retry-After...)
+    // con el Content-Type completo, parámetros incluidos
+    private static Map<String, List<String>> recordedHeaders(ContainerResponseContext responseContext) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        MediaType type = responseContext.getMediaType();
+        headers.put(HttpHeaders.CONTENT_TYPE, List.of(type != null ? type.toString() : MediaType.APPLICATION_JSON));
+        responseContext.getStringHeaders().forEach((name, values) -> {
+            String lower = name.toLowerCase();
+            if (!UNRECORDED_HEADERS.contains(lower) && !lower.equals("content-type")
+                    && !lower.startsWith("access-control-")) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return headers;
+    }
+
+    private static String canonicalQuery(MultivaluedMap<String, String> parameters) {
+        if (parameters.isEmpty()) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, List<String>> parameter : new TreeMap<>(parameters).entrySet()) {
+            for (String value : parameter.getValue()) {
+                if (query.length() > 0) {
+                    query.append('&');
+                }
+                query.append(parameter.getKey()).append('=').append(value);
+            }
+        }
+        return query.toString();
+    }
+}
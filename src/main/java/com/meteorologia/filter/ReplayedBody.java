@@ -0,0 +1,8 @@
+package com.meteorologia.filter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cuerpo de una respuesta reproducida: una vista sobre el archivo proyectado en memoria.
+ */
+public record ReplayedBody(ByteBuffer bytes) {}
@@ -0,0 +1,57 @@
+package com.meteorologia.filter;
+
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+/**
+ * Escribe un {@link ReplayedBody} leído del fichero proyectado.
+ *
+ * El cuerpo se copia una vez a un array y se entrega por la respuesta de
+ * RESTEasy Reactive ({@code serverResponse().end}), que es la que lleva la
+ * cuenta del cierre de la petición; la copia es del tamaño de una respuesta y
+ * no justifica escribir por debajo en la respuesta de Vert.x.
+ */
+@Provider
+@Produces(MediaType.WILDCARD)
+public class ReplayedBodyWriter implements ServerMessageBodyWriter<ReplayedBody> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target,
+                               MediaType mediaType) {
+        return ReplayedBody.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return ReplayedBody.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeResponse(ReplayedBody body, Type genericType, ServerRequestContext context) {
+        context.serverResponse().end(toArray(body.bytes()));
+    }
+
+    @Override
+    public void writeTo(ReplayedBody body, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        entityStream.write(toArray(body.bytes()));
+    }
+
+    private static byte[] toArray(ByteBuffer bytes) {
+        byte[] array = new byte[bytes.remaining()];
+        bytes.duplicate().get(array);
+        return array;
+    }
+}
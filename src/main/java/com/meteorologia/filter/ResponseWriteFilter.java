@@ -0,0 +1,37 @@
+package com.meteorologia.filter;
+
+import com.meteorologia.jfr.ResponseWriteEvent;
+import io.vertx.ext.web.RoutingContext;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import jakarta.ws.rs.container.ContainerResponseContext;
+
+/**
+ * Emite un {@link ResponseWriteEvent} por cada cuerpo, desde que se va a serializar
+ * hasta el último byte escrito.
+ *
+ * No es un WriterInterceptor a propósito: con uno registrado RESTEasy Reactive escribe
+ * todos los cuerpos por el OutputStream bloqueante y {@link DripBodyWriter} ya no podría
+ * gotear con temporizadores. Si ninguna grabación JFR tiene el evento activado no se
+ * registra nada.
+ */
+public class ResponseWriteFilter {
+
+    @ServerResponseFilter
+    public void traceWrite(ContainerResponseContext responseContext, RoutingContext routingContext) {
+        ResponseWriteEvent event = new ResponseWriteEvent();
+        if (!event.isEnabled() || !responseContext.hasEntity()) {
+            return;
+        }
+        event.entityType = responseContext.getEntityClass().getSimpleName();
+        event.mediaType = responseContext.getMediaType() != null ? responseContext.getMediaType().toString() : null;
+        event.begin();
+        routingContext.addEndHandler(result -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytesWritten = routingContext.response().bytesWritten();
+                event.commit();
+            }
+        });
+    }
+}
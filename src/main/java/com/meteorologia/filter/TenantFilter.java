@@ -0,0 +1,58 @@
+package com.meteorologia.filter;
+
+import com.meteorologia.service.TenantContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public class TenantFilter {
+
+    static final String TENANT_HEADER = "X-Tenant";
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+
+    private static final String DEFAULT_TENANT = "default";
+
+    @ConfigProperty(name = "meteorologia.tenants.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // Inquilinos que se pueden usar además del de por defecto; sin lista, ninguno
+    @ConfigProperty(name = "meteorologia.tenants.allowed")
+    Optional<Set<String>> allowed;
+
+    @Inject
+    TenantContext tenantContext;
+
+    // Solo se valida y se anota el id: el inquilino se construye después, en el worker.
+    // Antes de la reproducción, que separa las respuestas grabadas por inquilino
+    @ServerRequestFilter(preMatching = true, priority = Priorities.USER + 150)
+    public Response filter(ContainerRequestContext requestContext) {
+        String tenant = requestContext.getHeaderString(TENANT_HEADER);
+        if (!enabled || tenant == null || tenant.isEmpty()) {
+            return null;
+        }
+        if (!TENANT_ID.matcher(tenant).matches()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Inquilino no válido: debe tener de 1 a 64 letras, dígitos, '-' o '_'\"}")
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+        }
+        // Cada inquilino nuevo construye un catálogo: no puede crearlos cualquier cliente
+        if (!DEFAULT_TENANT.equals(tenant) && !allowed.map(ids -> ids.contains(tenant)).orElse(false)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"error\": \"Inquilino no encontrado\"}")
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+        }
+        tenantContext.setTenantId(tenant);
+        return null;
+    }
+}
@@ -0,0 +1,330 @@
+package com.meteorologia.health;
+
+import com.meteorologia.filter.AdaptiveConcurrencyLimiter;
+import com.meteorologia.service.RegionalAggregates;
+import com.meteorologia.service.WeatherService;
+import com.meteorologia.service.WeatherTiles;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Señales de saturación del pod para la readiness y el autoescalado.
+ *
+ * Un hilo de fondo envía periódicamente una tarea vacía a cada event loop y al
+ * pool de workers y mide cuánto tarda en ejecutarse: es la espera que sufriría
+ * una petición real en ese momento. Mientras una sonda no vuelve, la espera
+ * cuenta hasta el instante actual, así que un event loop bloqueado se ve
+ * enseguida. A los event loops se llega por los contextos de un verticle con una
+ * instancia por event loop y al pool de workers por el {@link ManagedExecutor}
+ * de Quarkus, sin APIs internas de Vert.x ni de Quarkus. Con esas esperas y la fracción de peticiones que rechaza el límite
+ * de concurrencia se calcula un índice de saturación: 1 significa que alguna de
+ * las tres señales ha llegado a su umbral.
+ *
+ * La tercera señal no es la ocupación del límite: cuando la latencia sube el
+ * límite se contrae y unas pocas peticiones en curso ya lo llenan, aunque el pod
+ * atienda casi todo lo que le llega. Se mide en cambio qué parte de las
+ * peticiones se rechaza en cada muestreo.
+ *
+ * Las tres señales se suavizan con una media móvil exponencial en cada muestreo,
+ * y la readiness solo cambia tras varias muestras seguidas al otro lado de su
+ * umbral: una pausa de GC o una sonda lenta aislada no saca el pod del
+ * balanceo, ni todos los pods a la vez cuando la carga sube en todos.
+ *
+ * Al arrancar se precalientan el campo, las teselas y los agregados del
+ * inquilino por defecto; hasta entonces el pod no se declara listo.
+ */
+@ApplicationScoped
+public class SaturationMonitor {
+
+    private static final Logger LOG = Logger.getLogger(SaturationMonitor.class);
+
+    @ConfigProperty(name = "meteorologia.saturation.sample-interval-ms", defaultValue = "500")
+    long sampleIntervalMs;
+
+    @ConfigProperty(name = "meteorologia.saturation.event-loop-lag-threshold-ms", defaultValue = "200")
+    long eventLoopLagThresholdMs;
+
+    @ConfigProperty(name = "meteorologia.saturation.worker-delay-threshold-ms", defaultValue = "500")
+    long workerDelayThresholdMs;
+
+    @ConfigProperty(name = "meteorologia.saturation.rejection-rate-threshold", defaultValue = "0.5")
+    double rejectionRateThreshold;
+
+    // Peso de la última muestra en la media de cada señal
+    @ConfigProperty(name = "meteorologia.saturation.smoothing", defaultValue = "0.3")
+    double smoothing;
+
+    @ConfigProperty(name = "meteorologia.saturation.readiness-threshold", defaultValue = "1.0")
+    double readinessThreshold;
+
+    @ConfigProperty(name = "meteorologia.saturation.readiness-samples", defaultValue = "3")
+    int readinessSamples;
+
+    @ConfigProperty(name = "meteorologia.saturation.warm-up", defaultValue = "true")
+    boolean warmUpEnabled;
+
+    // Mismo valor por defecto que Quarkus: dos event loops por núcleo
+    @ConfigProperty(name = "quarkus.vertx.event-loops-pool-size")
+    Optional<Integer> eventLoops;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    ManagedExecutor workers;
+
+    @Inject
+    AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    WeatherTiles weatherTiles;
+
+    @Inject
+    RegionalAggregates regionalAggregates;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Sonda i: [0, loops) event loops, loops el pool de workers. Envío a 0 = sin sonda pendiente
+    private final List<Executor> targets = new ArrayList<>();
+    private AtomicLongArray submitted;
+    private AtomicLongArray delays;
+    private int loops;
+
+    // Solo las escribe el hilo de muestreo
+    private long lastAdmitted;
+    private long lastRejected;
+    private int samplesAcross;
+    private volatile double rejectionRate;
+    private volatile double smoothedLagNanos;
+    private volatile double smoothedDelayNanos;
+    private volatile boolean saturated;
+
+    private volatile boolean warm;
+    private volatile boolean running;
+    private Thread sampler;
+
+    void onStart(@Observes StartupEvent event) throws Exception {
+        targets.addAll(eventLoopProbes());
+        loops = targets.size();
+        LOG.debugf("Sondas de saturación en %d event loops", loops);
+        targets.add(workers);
+        submitted = new AtomicLongArray(targets.size());
+        delays = new AtomicLongArray(targets.size());
+
+        Gauge.builder("meteorologia.saturation", this, SaturationMonitor::saturation)
+            .description("Índice de saturación del pod: 1 al llegar a algún umbral")
+            .register(registry);
+        Gauge.builder("meteorologia.saturation.event_loop_lag", this, m -> m.eventLoopLagNanos() / 1e9)
+            .description("Mayor espera de una tarea en los event loops")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge.builder("meteorologia.saturation.worker_queue_delay", this, m -> m.workerDelayNanos() / 1e9)
+            .description("Espera de una tarea en la cola del pool de workers")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge.builder("meteorologia.saturation.rejection_rate", this, SaturationMonitor::getRejectionRate)
+            .description("Fracción suavizada de peticiones rechazadas por el límite de concurrencia")
+            .register(registry);
+        Gauge.builder("meteorologia.saturation.cache_warm", this, m -> m.warm ? 1 : 0)
+            .description("1 cuando las cachés ya se han precalentado")
+            .register(registry);
+
+        running = true;
+        sampler = new Thread(this::sampleLoop, "saturation-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        if (!warmUpEnabled) {
+            warm = true;
+        } else {
+            workers.execute(this::warmUp);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+        if (sampler != null) {
+            running = false;
+            LockSupport.unpark(sampler);
+            sampler.join(TimeUnit.SECONDS.toMillis(2));
+        }
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Si el índice lleva al menos {@code readiness-samples} muestras seguidas en el umbral
+     * de readiness (y aún no otras tantas por debajo).
+     */
+    public boolean isSaturated() {
+        return saturated;
+    }
+
+    public long eventLoopLagNanos() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (int i = 0; i < loops; i++) {
+            max = Math.max(max, delayOf(i, now));
+        }
+        return max;
+    }
+
+    public long workerDelayNanos() {
+        return delayOf(loops, System.nanoTime());
+    }
+
+    public int getInFlight() {
+        return concurrencyLimiter.getInFlight();
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimiter.getLimit();
+    }
+
+    public double getRejectionRate() {
+        return rejectionRate;
+    }
+
+    /**
+     * Máximo de las tres señales suavizadas, normalizadas por su umbral.
+     */
+    public double saturation() {
+        double lag = smoothedLagNanos / TimeUnit.MILLISECONDS.toNanos(eventLoopLagThresholdMs);
+        double delay = smoothedDelayNanos / TimeUnit.MILLISECONDS.toNanos(workerDelayThresholdMs);
+        double rejections = concurrencyLimiter.isEnabled() ? rejectionRate / rejectionRateThreshold : 0;
+        return Math.max(lag, Math.max(delay, rejections));
+    }
+
+    private long delayOf(int probe, long now) {
+        long sent = submitted.get(probe);
+        long last = delays.get(probe);
+        return sent != 0 ? Math.max(last, now - sent) : last;
+    }
+
+    private void sampleLoop() {
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10, sampleIntervalMs));
+        while (running) {
+            for (int i = 0; i < targets.size(); i++) {
+                probe(i);
+            }
+            sampleRejections();
+            smoothedLagNanos += smoothing * (eventLoopLagNanos() - smoothedLagNanos);
+            smoothedDelayNanos += smoothing * (workerDelayNanos() - smoothedDelayNanos);
+            updateReadiness();
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+
+    private void sampleRejections() {
+        long admitted = concurrencyLimiter.getAdmittedCount();
+        long rejected = concurrencyLimiter.getRejectedCount();
+        long total = (admitted - lastAdmitted) + (rejected - lastRejected);
+        // Sin tráfico en el intervalo no hay rechazos: la media decae hacia 0
+        double sample = total == 0 ? 0 : (double) (rejected - lastRejected) / total;
+        rejectionRate += smoothing * (sample - rejectionRate);
+        lastAdmitted = admitted;
+        lastRejected = rejected;
+    }
+
+    // Histéresis: el estado cambia tras readinessSamples muestras seguidas al otro lado del umbral
+    private void updateReadiness() {
+        boolean over = saturation() >= readinessThreshold;
+        if (over == saturated) {
+            samplesAcross = 0;
+        } else if (++samplesAcross >= Math.max(1, readinessSamples)) {
+            saturated = over;
+            samplesAcross = 0;
+        }
+    }
+
+    /**
+     * Un ejecutor por event loop. Cada instancia de un verticle recibe un contexto nuevo y
+     * los contextos se reparten por turnos entre los event loops; se despliegan el doble de
+     * instancias que event loops y se queda uno por hilo.
+     */
+    private List<Executor> eventLoopProbes() throws Exception {
+        int count = eventLoops.orElse(2 * Runtime.getRuntime().availableProcessors());
+        Set<Thread> seen = ConcurrentHashMap.newKeySet();
+        List<Executor> probes = new ArrayList<>();
+        vertx.deployVerticle(() -> new AbstractVerticle() {
+            @Override
+            public void start() {
+                if (seen.add(Thread.currentThread())) {
+                    Context loop = context;
+                    synchronized (probes) {
+                        probes.add(task -> loop.runOnContext(ignored -> task.run()));
+                    }
+                }
+            }
+        }, new DeploymentOptions().setInstances(2 * count))
+            .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        synchronized (probes) {
+            return new ArrayList<>(probes);
+        }
+    }
+
+    private void probe(int i) {
+        if (submitted.get(i) != 0) {
+            // La sonda anterior aún no ha vuelto: su espera sigue contando
+            return;
+        }
+        long sent = System.nanoTime();
+        submitted.set(i, sent);
+        try {
+            targets.get(i).execute(() -> {
+                delays.set(i, System.nanoTime() - sent);
+                submitted.set(i, 0);
+            });
+        } catch (RejectedExecutionException e) {
+            // Parada en curso
+            submitted.set(i, 0);
+        }
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            // Rejilla del campo del tick actual, teselas y agregados del inquilino por defecto
+            weatherService.getAllStations().forEach(station ->
+                weatherService.getCurrentWeather(weatherService.getStationSnapshot(), station));
+            weatherTiles.tile(0, 0, 0);
+            for (RegionalAggregates.GroupBy groupBy : RegionalAggregates.GroupBy.values()) {
+                regionalAggregates.aggregate(groupBy);
+            }
+            LOG.infof("Cachés precalentadas en %d ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            // Un fallo aquí no debe dejar el pod fuera de servicio: la primera petición las calculará
+            LOG.warn("No se pudieron precalentar las cachés", e);
+        } finally {
+            warm = true;
+        }
+    }
+}
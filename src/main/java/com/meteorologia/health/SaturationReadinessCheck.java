@@ -0,0 +1,39 @@
+package com.meteorologia.health;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readiness según la saturación real: el pod deja de recibir tráfico mientras
+ * no ha precalentado sus cachés o el índice de saturación se mantiene en el
+ * umbral de readiness durante varias muestras seguidas.
+ */
+@Readiness
+@ApplicationScoped
+public class SaturationReadinessCheck implements HealthCheck {
+
+    @Inject
+    SaturationMonitor monitor;
+
+    @Override
+    public HealthCheckResponse call() {
+        double saturation = monitor.saturation();
+        boolean warm = monitor.isWarm();
+        return HealthCheckResponse.named("saturation")
+            .status(warm && !monitor.isSaturated())
+            .withData("cache_warm", warm)
+            .withData("saturation", String.format(Locale.ROOT, "%.3f", saturation))
+            .withData("event_loop_lag_ms", TimeUnit.NANOSECONDS.toMillis(monitor.eventLoopLagNanos()))
+            .withData("worker_queue_delay_ms", TimeUnit.NANOSECONDS.toMillis(monitor.workerDelayNanos()))
+            .withData("rejection_rate", String.format(Locale.ROOT, "%.3f", monitor.getRejectionRate()))
+            .withData("in_flight", monitor.getInFlight())
+            .withData("concurrency_limit", monitor.getConcurrencyLimit())
+            .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.meteorologia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Consulta a una caché interna; en un fallo la duración incluye el cálculo de la entrada.
+ */
+@Name(CacheLookupEvent.NAME)
+@Label("Consulta de caché")
+@Category({"Meteorología", "Caché"})
+@Description("Consulta a la caché de coordenadas o de teselas")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    public static final String NAME = "com.meteorologia.CacheLookup";
+
+    @Label("Caché")
+    @Description("location o tiles")
+    public String cache;
+
+    @Label("Acierto")
+    public boolean hit;
+}
@@ -0,0 +1,130 @@
+package com.meteorologia.jfr;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+
+/**
+ * Consumidor en proceso de los eventos JFR propios que los resume en métricas.
+ *
+ * Los eventos no cuestan nada mientras ninguna grabación los tenga activados:
+ * {@code shouldCommit()} es falso y los campos no llegan a calcularse. Este
+ * consumidor abre un {@link RecordingStream} solo con ellos, así que con las
+ * métricas activadas se registran siempre; una grabación externa (jcmd
+ * JFR.start) los recibe además con su pila de llamadas habitual. Los eventos se
+ * procesan en el hilo del stream, por lotes y fuera del camino de la petición.
+ *
+ * Por eso viene desactivado: activado, cada petición paga la escritura de
+ * varios eventos en el buffer de JFR y el hilo del stream compite por CPU. Con
+ * un umbral solo se registran las operaciones más lentas que él, lo que abarata
+ * el coste pero deja las métricas sesgadas hacia la cola lenta (los recuentos
+ * dejan de ser el número total de operaciones).
+ */
+@ApplicationScoped
+public class FlightRecorderMetrics {
+
+    private static final Logger LOG = Logger.getLogger(FlightRecorderMetrics.class);
+
+    @ConfigProperty(name = "meteorologia.jfr.metrics.enabled", defaultValue = "false")
+    boolean enabled;
+
+    // 0: todos los eventos
+    @ConfigProperty(name = "meteorologia.jfr.metrics.threshold-ms", defaultValue = "0")
+    long thresholdMs;
+
+    @Inject
+    MeterRegistry registry;
+
+    private RecordingStream stream;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+        } catch (RuntimeException e) {
+            // Sin Flight Recorder (p. ej. imagen nativa sin monitorización): sin métricas JFR
+            LOG.warnf("Flight Recorder no disponible, métricas JFR desactivadas: %s", e.getMessage());
+            return;
+        }
+        stream.setReuse(true);
+        stream.setOrdered(false);
+        stream.setMaxAge(Duration.ofSeconds(30));
+        for (String name : new String[] {GenerationEvent.NAME, StationSearchEvent.NAME,
+                                         CacheLookupEvent.NAME, ResponseWriteEvent.NAME}) {
+            stream.enable(name).withThreshold(Duration.ofMillis(Math.max(0, thresholdMs)));
+        }
+        stream.onEvent(GenerationEvent.NAME, this::onGeneration);
+        stream.onEvent(StationSearchEvent.NAME, this::onSearch);
+        stream.onEvent(CacheLookupEvent.NAME, this::onCacheLookup);
+        stream.onEvent(ResponseWriteEvent.NAME, this::onResponseWrite);
+        stream.startAsync();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onGeneration(RecordedEvent event) {
+        String kind = event.getString("kind");
+        Timer.builder("meteorologia.jfr.generation")
+            .description("Tiempo de generación de datos simulados")
+            .tag("kind", kind)
+            .register(registry)
+            .record(event.getDuration());
+        DistributionSummary.builder("meteorologia.jfr.generation.items")
+            .description("Elementos generados por operación")
+            .tag("kind", kind)
+            .register(registry)
+            .record(event.getInt("items"));
+    }
+
+    private void onSearch(RecordedEvent event) {
+        String kind = event.getString("kind");
+        Timer.builder("meteorologia.jfr.search")
+            .description("Tiempo de búsqueda de estaciones")
+            .tag("kind", kind)
+            .register(registry)
+            .record(event.getDuration());
+        DistributionSummary.builder("meteorologia.jfr.search.candidates")
+            .description("Candidatos examinados por búsqueda")
+            .tag("kind", kind)
+            .register(registry)
+            .record(event.getInt("candidatesScanned"));
+    }
+
+    private void onCacheLookup(RecordedEvent event) {
+        Timer.builder("meteorologia.jfr.cache.lookup")
+            .description("Consultas a cachés internas, incluido el cálculo en los fallos")
+            .tag("cache", event.getString("cache"))
+            .tag("result", event.getBoolean("hit") ? "hit" : "miss")
+            .register(registry)
+            .record(event.getDuration());
+    }
+
+    private void onResponseWrite(RecordedEvent event) {
+        Timer.builder("meteorologia.jfr.response_write")
+            .description("Tiempo de serialización y escritura de respuestas")
+            .register(registry)
+            .record(event.getDuration());
+        DistributionSummary.builder("meteorologia.jfr.response_write.bytes")
+            .description("Bytes escritos por respuesta")
+            .baseUnit("bytes")
+            .register(registry)
+            .record(event.getLong("bytesWritten"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.meteorologia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Generación de datos simulados: lectura actual, pronóstico diario u horario.
+ */
+@Name(GenerationEvent.NAME)
+@Label("Generación meteorológica")
+@Category({"Meteorología", "Generación"})
+@Description("Generación de lecturas y pronósticos simulados")
+@StackTrace(false)
+public class GenerationEvent extends Event {
+
+    public static final String NAME = "com.meteorologia.Generation";
+
+    @Label("Tipo")
+    @Description("current, location, forecast u hourly")
+    public String kind;
+
+    @Label("Estación")
+    public String stationId;
+
+    @Label("Elementos")
+    @Description("Lecturas o puntos de pronóstico generados")
+    public int items;
+}
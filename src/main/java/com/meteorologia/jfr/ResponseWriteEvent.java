@@ -0,0 +1,32 @@
+package com.meteorologia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Serialización y escritura del cuerpo de una respuesta.
+ */
+@Name(ResponseWriteEvent.NAME)
+@Label("Escritura de respuesta")
+@Category({"Meteorología", "Respuesta"})
+@Description("Serialización del cuerpo de la respuesta hasta el último byte escrito")
+@StackTrace(false)
+public class ResponseWriteEvent extends Event {
+
+    public static final String NAME = "com.meteorologia.ResponseWrite";
+
+    @Label("Tipo de entidad")
+    public String entityType;
+
+    @Label("Tipo de contenido")
+    public String mediaType;
+
+    @Label("Bytes escritos")
+    @DataAmount
+    public long bytesWritten;
+}
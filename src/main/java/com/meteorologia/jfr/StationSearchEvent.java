@@ -0,0 +1,31 @@
+package com.meteorologia.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Búsqueda de estaciones: la más cercana, las cercanas o la búsqueda aproximada.
+ */
+@Name(StationSearchEvent.NAME)
+@Label("Búsqueda de estaciones")
+@Category({"Meteorología", "Búsqueda"})
+@Description("Búsqueda espacial o aproximada sobre el catálogo")
+@StackTrace(false)
+public class StationSearchEvent extends Event {
+
+    public static final String NAME = "com.meteorologia.StationSearch";
+
+    @Label("Tipo")
+    @Description("nearest, nearby o fuzzy")
+    public String kind;
+
+    @Label("Candidatos examinados")
+    public int candidatesScanned;
+
+    @Label("Resultados")
+    public int results;
+}
@@ -0,0 +1,119 @@
+package com.meteorologia.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "Alert", description = "Aviso activo: una regla que se cumple en una estación")
+public class Alert {
+
+    @Schema(description = "Identificador de la regla", example = "RULE_001")
+    @JsonProperty("rule_id")
+    private String ruleId;
+
+    @Schema(description = "Nombre de la regla", example = "Viento fuerte en Cataluña")
+    @JsonProperty("rule_name")
+    private String ruleName;
+
+    @Schema(description = "Nivel del aviso", example = "NARANJA")
+    private String severity;
+
+    @Schema(description = "Identificador de la estación", example = "STATION_002")
+    @JsonProperty("station_id")
+    private String stationId;
+
+    @Schema(description = "Ciudad de la estación", example = "Barcelona")
+    private String city;
+
+    @Schema(description = "País de la estación", example = "España")
+    private String country;
+
+    @Schema(description = "Región de la estación", example = "Cataluña")
+    private String region;
+
+    @Schema(description = "Variable de la lectura", example = "wind_speed")
+    private String metric;
+
+    @Schema(description = "Comparación con el umbral", example = ">")
+    private String operator;
+
+    @Schema(description = "Valor umbral", example = "25")
+    private Double threshold;
+
+    @Schema(description = "Valor de la última lectura evaluada", example = "31.4")
+    private Double value;
+
+    @Schema(description = "Momento en que se activó el aviso", example = "2025-05-22T14:30:00")
+    @JsonProperty("triggered_at")
+    private LocalDateTime triggeredAt;
+
+    // Constructor vacío
+    public Alert() {}
+
+    // Constructor completo
+    public Alert(String ruleId, String ruleName, String severity, String stationId, String city,
+                 String country, String region, String metric, String operator, Double threshold,
+                 Double value, LocalDateTime triggeredAt) {
+        this.ruleId = ruleId;
+        this.ruleName = ruleName;
+        this.severity = severity;
+        this.stationId = stationId;
+        this.city = city;
+        this.country = country;
+        this.region = region;
+        this.metric = metric;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.value = value;
+        this.triggeredAt = triggeredAt;
+    }
+
+    // Getters y Setters
+    public String getRuleId() { return ruleId; }
+    public void setRuleId(String ruleId) { this.ruleId = ruleId; }
+
+    public String getRuleName() { return ruleName; }
+    public void setRuleName(String ruleName) { this.ruleName = ruleName; }
+
+    public String getSeverity() { return severity; }
+    public void setSeverity(String severity) { this.severity = severity; }
+
+    public String getStationId() { return stationId; }
+    public void setStationId(String stationId) { this.stationId = stationId; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public String getOperator() { return operator; }
+    public void setOperator(String operator) { this.operator = operator; }
+
+    public Double getThreshold() { return threshold; }
+    public void setThreshold(Double threshold) { this.threshold = threshold; }
+
+    public Double getValue() { return value; }
+    public void setValue(Double value) { this.value = value; }
+
+    public LocalDateTime getTriggeredAt() { return triggeredAt; }
+    public void setTriggeredAt(LocalDateTime triggeredAt) { this.triggeredAt = triggeredAt; }
+
+    @Override
+    public String toString() {
+        return "Alert{" +
+                "ruleId='" + ruleId + '\'' +
+                ", stationId='" + stationId + '\'' +
+                ", metric='" + metric + '\'' +
+                ", value=" + value +
+                ", triggeredAt=" + triggeredAt +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.meteorologia.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "AlertEvent", description = "Cambio de estado de un aviso")
+public class AlertEvent {
+
+    @Schema(description = "Tipo de cambio", example = "ACTIVADO", enumeration = {"ACTIVADO", "FINALIZADO"})
+    private String type;
+
+    @Schema(description = "Aviso afectado, con la lectura que provocó el cambio")
+    private Alert alert;
+
+    @Schema(description = "Momento del cambio", example = "2025-05-22T14:30:00")
+    @JsonProperty("event_time")
+    private LocalDateTime eventTime;
+
+    // Constructor vacío
+    public AlertEvent() {}
+
+    // Constructor completo
+    public AlertEvent(String type, Alert alert, LocalDateTime eventTime) {
+        this.type = type;
+        this.alert = alert;
+        this.eventTime = eventTime;
+    }
+
+    // Getters y Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Alert getAlert() { return alert; }
+    public void setAlert(Alert alert) { this.alert = alert; }
+
+    public LocalDateTime getEventTime() { return eventTime; }
+    public void setEventTime(LocalDateTime eventTime) { this.eventTime = eventTime; }
+
+    @Override
+    public String toString() {
+        return "AlertEvent{" +
+                "type='" + type + '\'' +
+                ", alert=" + alert +
+                ", eventTime=" + eventTime +
+                '}';
+    }
+}
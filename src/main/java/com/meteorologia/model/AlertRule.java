@@ -0,0 +1,94 @@
+package com.meteorologia.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(name = "AlertRule", description = "Regla de aviso por umbral sobre una variable de las lecturas")
+public class AlertRule {
+
+    @Schema(description = "Identificador de la regla (se asigna si no se indica)", example = "RULE_001")
+    private String id;
+
+    @Schema(description = "Nombre descriptivo de la regla", example = "Viento fuerte en Cataluña")
+    private String name;
+
+    @Schema(description = "Variable de la lectura", example = "wind_speed",
+            enumeration = {"temperature", "feels_like", "humidity", "pressure", "wind_speed",
+                           "visibility", "uv_index", "precipitation_24h"})
+    private String metric;
+
+    @Schema(description = "Comparación con el umbral", example = ">", enumeration = {">", ">=", "<", "<="})
+    private String operator;
+
+    @Schema(description = "Valor umbral", example = "25")
+    private Double threshold;
+
+    @Schema(description = "Nivel del aviso", example = "NARANJA", enumeration = {"AMARILLO", "NARANJA", "ROJO"})
+    private String severity;
+
+    @Schema(description = "Limita la regla a las estaciones de un país", example = "España")
+    private String country;
+
+    @Schema(description = "Limita la regla a las estaciones de una región", example = "Cataluña")
+    private String region;
+
+    @Schema(description = "Limita la regla a una estación", example = "STATION_002")
+    @JsonProperty("station_id")
+    private String stationId;
+
+    // Constructor vacío
+    public AlertRule() {}
+
+    // Constructor completo
+    public AlertRule(String id, String name, String metric, String operator, Double threshold,
+                     String severity, String country, String region, String stationId) {
+        this.id = id;
+        this.name = name;
+        this.metric = metric;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.severity = severity;
+        this.country = country;
+        this.region = region;
+        this.stationId = stationId;
+    }
+
+    // Getters y Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public String getOperator() { return operator; }
+    public void setOperator(String operator) { this.operator = operator; }
+
+    public Double getThreshold() { return threshold; }
+    public void setThreshold(Double threshold) { this.threshold = threshold; }
+
+    public String getSeverity() { return severity; }
+    public void setSeverity(String severity) { this.severity = severity; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public String getStationId() { return stationId; }
+    public void setStationId(String stationId) { this.stationId = stationId; }
+
+    @Override
+    public String toString() {
+        return "AlertRule{" +
+                "id='" + id + '\'' +
+                ", metric='" + metric + '\'' +
+                ", operator='" + operator + '\'' +
+                ", threshold=" + threshold +
+                ", severity='" + severity + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package com.meteorologia.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import jakarta.validation.constraints.NotNull;
+
+@Schema(name = "FaultProfile", description = "Perfil de latencia y fallos inyectados para un endpoint")
+public class FaultProfile {
+
+    @Schema(description = "Prefijo de ruta al que se aplica (gana el más largo)", example = "/api/weather/forecast")
+    @NotNull
+    private String endpoint;
+
+    @Schema(description = "Método HTTP al que se aplica; vacío para todos", example = "GET")
+    private String method;
+
+    @Schema(description = "Distribución de la latencia inyectada", example = "LOGNORMAL",
+            enumeration = {"NONE", "FIXED", "UNIFORM", "LOGNORMAL", "BIMODAL"})
+    @JsonProperty("latency_distribution")
+    private String latencyDistribution = "NONE";
+
+    @Schema(description = "FIXED: latencia; LOGNORMAL: mediana; BIMODAL: modo rápido (ms)", example = "200")
+    @JsonProperty("latency_ms")
+    private Long latencyMs = 0L;
+
+    @Schema(description = "UNIFORM: latencia mínima (ms)", example = "50")
+    @JsonProperty("latency_min_ms")
+    private Long latencyMinMs = 0L;
+
+    @Schema(description = "UNIFORM: latencia máxima; BIMODAL: modo lento (ms)", example = "2000")
+    @JsonProperty("latency_max_ms")
+    private Long latencyMaxMs = 0L;
+
+    @Schema(description = "LOGNORMAL: desviación típica del logaritmo", example = "0.5")
+    @JsonProperty("lognormal_sigma")
+    private Double lognormalSigma = 0.5;
+
+    @Schema(description = "BIMODAL: proporción de peticiones en el modo lento (0-1)", example = "0.1")
+    @JsonProperty("slow_ratio")
+    private Double slowRatio = 0.0;
+
+    @Schema(description = "Proporción de peticiones que fallan (0-1)", example = "0.05")
+    @JsonProperty("error_rate")
+    private Double errorRate = 0.0;
+
+    @Schema(description = "Código HTTP de los fallos inyectados", example = "503")
+    @JsonProperty("error_status")
+    private Integer errorStatus = 503;
+
+    @Schema(description = "Tamaño de cada trozo del cuerpo en modo goteo (0 desactiva)", example = "64")
+    @JsonProperty("drip_chunk_bytes")
+    private Integer dripChunkBytes = 0;
+
+    @Schema(description = "Pausa entre trozos del cuerpo en modo goteo (ms)", example = "100")
+    @JsonProperty("drip_interval_ms")
+    private Long dripIntervalMs = 0L;
+
+    // Constructor vacío
+    public FaultProfile() {}
+
+    // Getters y Setters
+    public String getEndpoint() { return endpoint; }
+    public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+
+    public String getLatencyDistribution() { return latencyDistribution; }
+    public void setLatencyDistribution(String latencyDistribution) { this.latencyDistribution = latencyDistribution; }
+
+    public Long getLatencyMs() { return latencyMs; }
+    public void setLatencyMs(Long latencyMs) { this.latencyMs = latencyMs; }
+
+    public Long getLatencyMinMs() { return latencyMinMs; }
+    public void setLatencyMinMs(Long latencyMinMs) { this.latencyMinMs = latencyMinMs; }
+
+    public Long getLatencyMaxMs() { return latencyMaxMs; }
+    public void setLatencyMaxMs(Long latencyMaxMs) { this.latencyMaxMs = latencyMaxMs; }
+
+    public Double getLognormalSigma() { return lognormalSigma; }
+    public void setLognormalSigma(Double lognormalSigma) { this.lognormalSigma = lognormalSigma; }
+
+    public Double getSlowRatio() { return slowRatio; }
+    public void setSlowRatio(Double slowRatio) { this.slowRatio = slowRatio; }
+
+    public Double getErrorRate() { return errorRate; }
+    public void setErrorRate(Double errorRate) { this.errorRate = errorRate; }
+
+    public Integer getErrorStatus() { return errorStatus; }
+    public void setErrorStatus(Integer errorStatus) { this.errorStatus = errorStatus; }
+
+    public Integer getDripChunkBytes() { return dripChunkBytes; }
+    public void setDripChunkBytes(Integer dripChunkBytes) { this.dripChunkBytes = dripChunkBytes; }
+
+    public Long getDripIntervalMs() { return dripIntervalMs; }
+    public void setDripIntervalMs(Long dripIntervalMs) { this.dripIntervalMs = dripIntervalMs; }
+
+    @Override
+    public String toString() {
+        return "FaultProfile{" +
+                "endpoint='" + endpoint + '\'' +
+                ", method='" + method + '\'' +
+                ", latencyDistribution='" + latencyDistribution + '\'' +
+                ", errorRate=" + errorRate +
+                '}';
+    }
+}
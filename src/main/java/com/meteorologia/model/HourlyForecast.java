@@ -0,0 +1,132 @@
+package com.meteorologia.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+@Schema(name = "HourlyForecast", description = "Pronóstico meteorológico horario de una estación")
+public class HourlyForecast {
+
+    @Schema(description = "ID de la estación", example = "STATION_001")
+    @JsonProperty("station_id")
+    private String stationId;
+
+    @Schema(description = "Hora prevista en UTC", example = "2025-05-23T14:00:00Z")
+    private OffsetDateTime time;
+
+    @Schema(description = "Temperatura en grados Celsius", example = "22.4")
+    private Double temperature;
+
+    @Schema(description = "Sensación térmica en grados Celsius", example = "23.1")
+    @JsonProperty("feels_like")
+    private Double feelsLike;
+
+    @Schema(description = "Humedad relativa en porcentaje", example = "55")
+    private Integer humidity;
+
+    @Schema(description = "Presión atmosférica en hPa", example = "1015.2")
+    private Double pressure;
+
+    @Schema(description = "Velocidad del viento en km/h", example = "14.8")
+    @JsonProperty("wind_speed")
+    private Double windSpeed;
+
+    @Schema(description = "Dirección del viento en grados", example = "240")
+    @JsonProperty("wind_direction")
+    private Integer windDirection;
+
+    @Schema(description = "Nubosidad en porcentaje", example = "40")
+    @JsonProperty("cloud_cover")
+    private Integer cloudCover;
+
+    @Schema(description = "Probabilidad de precipitación en porcentaje", example = "10")
+    @JsonProperty("precipitation_probability")
+    private Integer precipitationProbability;
+
+    @Schema(description = "Precipitación esperada en la hora en mm", example = "0.0")
+    private Double precipitation;
+
+    @Schema(description = "Descripción del clima", example = "Parcialmente nublado")
+    @JsonProperty("weather_description")
+    private String weatherDescription;
+
+    @Schema(description = "Código del icono del clima", example = "partly-cloudy")
+    @JsonProperty("weather_icon")
+    private String weatherIcon;
+
+    // Constructor vacío
+    public HourlyForecast() {}
+
+    // Constructor completo
+    public HourlyForecast(String stationId, OffsetDateTime time, Double temperature, Double feelsLike,
+                          Integer humidity, Double pressure, Double windSpeed, Integer windDirection,
+                          Integer cloudCover, Integer precipitationProbability, Double precipitation,
+                          String weatherDescription, String weatherIcon) {
+        this.stationId = stationId;
+        this.time = time;
+        this.temperature = temperature;
+        this.feelsLike = feelsLike;
+        this.humidity = humidity;
+        this.pressure = pressure;
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+        this.cloudCover = cloudCover;
+        this.precipitationProbability = precipitationProbability;
+        this.precipitation = precipitation;
+        this.weatherDescription = weatherDescription;
+        this.weatherIcon = weatherIcon;
+    }
+
+    // Getters y Setters
+    public String getStationId() { return stationId; }
+    public void setStationId(String stationId) { this.stationId = stationId; }
+
+    public OffsetDateTime getTime() { return time; }
+    public void setTime(OffsetDateTime time) { this.time = time; }
+
+    public Double getTemperature() { return temperature; }
+    public void setTemperature(Double temperature) { this.temperature = temperature; }
+
+    public Double getFeelsLike() { return feelsLike; }
+    public void setFeelsLike(Double feelsLike) { this.feelsLike = feelsLike; }
+
+    public Integer getHumidity() { return humidity; }
+    public void setHumidity(Integer humidity) { this.humidity = humidity; }
+
+    public Double getPressure() { return pressure; }
+    public void setPressure(Double pressure) { this.pressure = pressure; }
+
+    public Double getWindSpeed() { return windSpeed; }
+    public void setWindSpeed(Double windSpeed) { this.windSpeed = windSpeed; }
+
+    public Integer getWindDirection() { return windDirection; }
+    public void setWindDirection(Integer windDirection) { this.windDirection = windDirection; }
+
+    public Integer getCloudCover() { return cloudCover; }
+    public void setCloudCover(Integer cloudCover) { this.cloudCover = cloudCover; }
+
+    public Integer getPrecipitationProbability() { return precipitationProbability; }
+    public void setPrecipitationProbability(Integer precipitationProbability) {
+        this.precipitationProbability = precipitationProbability;
+    }
+
+    public Double getPrecipitation() { return precipitation; }
+    public void setPrecipitation(Double precipitation) { this.precipitation = precipitation; }
+
+    public String getWeatherDescription() { return weatherDescription; }
+    public void setWeatherDescription(String weatherDescription) { this.weatherDescription = weatherDescription; }
+
+    public String getWeatherIcon() { return weatherIcon; }
+    public void setWeatherIcon(String weatherIcon) { this.weatherIcon = weatherIcon; }
+
+    @Override
+    public String toString() {
+        return "HourlyForecast{" +
+                "stationId='" + stationId + '\'' +
+                ", time=" + time +
+                ", temperature=" + temperature +
+                ", weatherDescription='" + weatherDescription + '\'' +
+                '}';
+    }
+}
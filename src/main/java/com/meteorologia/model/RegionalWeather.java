@@ -0,0 +1,104 @@
+package com.meteorologia.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(name = "RegionalWeather", description = "Lecturas actuales agregadas por país o región")
+public class RegionalWeather {
+
+    @Schema(description = "País del grupo", example = "España")
+    private String country;
+
+    @Schema(description = "Región del grupo (solo al agrupar por región)", example = "Andalucía")
+    private String region;
+
+    @Schema(description = "Número de estaciones del grupo", example = "12")
+    @JsonProperty("station_count")
+    private Integer stationCount;
+
+    @Schema(description = "Temperatura media en grados Celsius", example = "21.3")
+    @JsonProperty("mean_temperature")
+    private Double meanTemperature;
+
+    @Schema(description = "Temperatura mínima en grados Celsius", example = "17.8")
+    @JsonProperty("min_temperature")
+    private Double minTemperature;
+
+    @Schema(description = "Temperatura máxima en grados Celsius", example = "25.1")
+    @JsonProperty("max_temperature")
+    private Double maxTemperature;
+
+    @Schema(description = "Humedad media en porcentaje", example = "58.5")
+    @JsonProperty("mean_humidity")
+    private Double meanHumidity;
+
+    @Schema(description = "Humedad mínima en porcentaje", example = "41")
+    @JsonProperty("min_humidity")
+    private Integer minHumidity;
+
+    @Schema(description = "Humedad máxima en porcentaje", example = "77")
+    @JsonProperty("max_humidity")
+    private Integer maxHumidity;
+
+    @Schema(description = "Precipitación media en 24h en mm", example = "1.2")
+    @JsonProperty("mean_precipitation_24h")
+    private Double meanPrecipitation24h;
+
+    @Schema(description = "Precipitación mínima en 24h en mm", example = "0.0")
+    @JsonProperty("min_precipitation_24h")
+    private Double minPrecipitation24h;
+
+    @Schema(description = "Precipitación máxima en 24h en mm", example = "6.4")
+    @JsonProperty("max_precipitation_24h")
+    private Double maxPrecipitation24h;
+
+    // Constructor vacío
+    public RegionalWeather() {}
+
+    // Getters y Setters
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public Integer getStationCount() { return stationCount; }
+    public void setStationCount(Integer stationCount) { this.stationCount = stationCount; }
+
+    public Double getMeanTemperature() { return meanTemperature; }
+    public void setMeanTemperature(Double meanTemperature) { this.meanTemperature = meanTemperature; }
+
+    public Double getMinTemperature() { return minTemperature; }
+    public void setMinTemperature(Double minTemperature) { this.minTemperature = minTemperature; }
+
+    public Double getMaxTemperature() { return maxTemperature; }
+    public void setMaxTemperature(Double maxTemperature) { this.maxTemperature = maxTemperature; }
+
+    public Double getMeanHumidity() { return meanHumidity; }
+    public void setMeanHumidity(Double meanHumidity) { this.meanHumidity = meanHumidity; }
+
+    public Integer getMinHumidity() { return minHumidity; }
+    public void setMinHumidity(Integer minHumidity) { this.minHumidity = minHumidity; }
+
+    public Integer getMaxHumidity() { return maxHumidity; }
+    public void setMaxHumidity(Integer maxHumidity) { this.maxHumidity = maxHumidity; }
+
+    public Double getMeanPrecipitation24h() { return meanPrecipitation24h; }
+    public void setMeanPrecipitation24h(Double meanPrecipitation24h) { this.meanPrecipitation24h = meanPrecipitation24h; }
+
+    public Double getMinPrecipitation24h() { return minPrecipitation24h; }
+    public void setMinPrecipitation24h(Double minPrecipitation24h) { this.minPrecipitation24h = minPrecipitation24h; }
+
+    public Double getMaxPrecipitation24h() { return maxPrecipitation24h; }
+    public void setMaxPrecipitation24h(Double maxPrecipitation24h) { this.maxPrecipitation24h = maxPrecipitation24h; }
+
+    @Override
+    public String toString() {
+        return "RegionalWeather{" +
+                "country='" + country + '\'' +
+                ", region='" + region + '\'' +
+                ", stationCount=" + stationCount +
+                ", meanTemperature=" + meanTemperature +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.meteorologia.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Schema(name = "WeatherData", description = "Datos meteorológicos actuales")
+@JsonFilter("projection")
 public class WeatherData {
 
     @Schema(description = "Identificador único de la estación meteorológica", example = "STATION_001")
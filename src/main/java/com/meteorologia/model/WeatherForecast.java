@@ -1,5 +1,6 @@
 package com.meteorologia.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
@@ -10,6 +11,7 @@ import java.time.LocalDate;
 import java.util.Objects;
 
 @Schema(name = "WeatherForecast", description = "Pronóstico meteorológico diario")
+@JsonFilter("projection")
 public class WeatherForecast {
 
     @Schema(description = "Fecha del pronóstico", example = "2025-05-23")
@@ -1,5 +1,6 @@
 package com.meteorologia.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Schema(name = "WeatherStation", description = "Información de estación meteorológica")
+@JsonFilter("projection")
 public class WeatherStation {
 
     @Schema(description = "Identificador único de la estación", example = "STATION_001")
@@ -0,0 +1,74 @@
+package com.meteorologia.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(name = "WeatherTile", description = "Tiempo agregado de las estaciones de una tesela XYZ")
+public class WeatherTile {
+
+    @Schema(description = "Nivel de zoom", example = "6")
+    private Integer z;
+
+    @Schema(description = "Columna de la tesela", example = "31")
+    private Integer x;
+
+    @Schema(description = "Fila de la tesela", example = "24")
+    private Integer y;
+
+    @Schema(description = "Número de estaciones en la tesela", example = "3")
+    @JsonProperty("station_count")
+    private Integer stationCount;
+
+    @Schema(description = "Temperatura media de las estaciones en grados Celsius", example = "17.4")
+    @JsonProperty("mean_temperature")
+    private Double meanTemperature;
+
+    @Schema(description = "Icono más frecuente entre las estaciones", example = "partly-cloudy")
+    @JsonProperty("weather_icon")
+    private String weatherIcon;
+
+    // Constructor vacío
+    public WeatherTile() {}
+
+    // Constructor completo
+    public WeatherTile(Integer z, Integer x, Integer y, Integer stationCount,
+                       Double meanTemperature, String weatherIcon) {
+        this.z = z;
+        this.x = x;
+        this.y = y;
+        this.stationCount = stationCount;
+        this.meanTemperature = meanTemperature;
+        this.weatherIcon = weatherIcon;
+    }
+
+    // Getters y Setters
+    public Integer getZ() { return z; }
+    public void setZ(Integer z) { this.z = z; }
+
+    public Integer getX() { return x; }
+    public void setX(Integer x) { this.x = x; }
+
+    public Integer getY() { return y; }
+    public void setY(Integer y) { this.y = y; }
+
+    public Integer getStationCount() { return stationCount; }
+    public void setStationCount(Integer stationCount) { this.stationCount = stationCount; }
+
+    public Double getMeanTemperature() { return meanTemperature; }
+    public void setMeanTemperature(Double meanTemperature) { this.meanTemperature = meanTemperature; }
+
+    public String getWeatherIcon() { return weatherIcon; }
+    public void setWeatherIcon(String weatherIcon) { this.weatherIcon = weatherIcon; }
+
+    @Override
+    public String toString() {
+        return "WeatherTile{" +
+                "z=" + z +
+                ", x=" + x +
+                ", y=" + y +
+                ", stationCount=" + stationCount +
+                ", meanTemperature=" + meanTemperature +
+                ", weatherIcon='" + weatherIcon + '\'' +
+                '}';
+    }
+}
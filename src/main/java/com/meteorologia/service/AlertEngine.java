@@ -0,0 +1,452 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.Alert;
+import com.meteorologia.model.AlertEvent;
+import com.meteorologia.model.AlertRule;
+import com.meteorologia.model.WeatherData;
+import com.meteorologia.model.WeatherStation;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.vertx.core.Vertx;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Avisos por umbral evaluados sobre las lecturas de las estaciones.
+ *
+ * Las reglas se compilan en un índice de predicados: por ámbito (país, región,
+ * estación o combinación de ellos) y variable, los umbrales "por encima" y "por
+ * debajo" se guardan ordenados, así que las reglas que cumple una lectura se
+ * obtienen con una búsqueda binaria en lugar de probarlas todas. Para cada
+ * instantánea del catálogo se precalculan los ámbitos que afectan a cada
+ * estación; las estaciones sin reglas ni siquiera generan lectura.
+ *
+ * Se evalúa una vez por tick, o al cambiar las reglas o el catálogo, desde un
+ * temporizador y, si va con retraso, desde la propia consulta. Los cambios
+ * respecto a la evaluación anterior se publican como {@link AlertEvent}.
+ *
+ * Las reglas y los avisos son globales: se evalúan siempre sobre el catálogo del
+ * inquilino por defecto, sea cual sea el inquilino de la consulta.
+ */
+@ApplicationScoped
+public class AlertEngine {
+
+    private static final Logger LOG = Logger.getLogger(AlertEngine.class);
+
+    public static final String ACTIVATED = "ACTIVADO";
+    public static final String FINISHED = "FINALIZADO";
+
+    private static final Set<String> SEVERITIES = Set.of("AMARILLO", "NARANJA", "ROJO");
+    private static final int MAX_BUFFERED_EVENTS = 10_000;
+    private static final Metric[] METRICS = Metric.values();
+
+    @ConfigProperty(name = "meteorologia.alerts.check-seconds", defaultValue = "5")
+    long checkSeconds;
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    WeatherField weatherField;
+
+    @Inject
+    Vertx vertx;
+
+    private final BroadcastProcessor<AlertEvent> events = BroadcastProcessor.create();
+    private volatile RuleIndex rules = new RuleIndex(new LinkedHashMap<>());
+    private volatile Evaluation evaluation;
+    private Plan plan;
+    private long checkTimer = -1;
+
+    void onStart(@Observes StartupEvent event) {
+        checkTimer = vertx.setPeriodic(TimeUnit.SECONDS.toMillis(Math.max(1, checkSeconds)), id ->
+            vertx.executeBlocking(() -> current(), false)
+                .onFailure(failure -> LOG.error("No se pudieron evaluar los avisos", failure)));
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (checkTimer >= 0) {
+            vertx.cancelTimer(checkTimer);
+        }
+        events.onComplete();
+    }
+
+    public List<AlertRule> getRules() {
+        return List.copyOf(rules.rules.values());
+    }
+
+    public Optional<AlertRule> getRule(String id) {
+        return Optional.ofNullable(rules.rules.get(id));
+    }
+
+    /**
+     * Añade una regla; sin id se le asigna el siguiente libre.
+     *
+     * @throws IllegalArgumentException si la regla no es válida
+     * @throws IllegalStateException si ya existe una regla con ese id
+     */
+    public synchronized AlertRule createRule(AlertRule rule) {
+        AlertRule normalized = normalized(rule);
+        LinkedHashMap<String, AlertRule> next = new LinkedHashMap<>(rules.rules);
+        if (normalized.getId() == null) {
+            int n = next.size() + 1;
+            while (next.containsKey(String.format("RULE_%03d", n))) {
+                n++;
+            }
+            normalized.setId(String.format("RULE_%03d", n));
+        } else if (next.containsKey(normalized.getId())) {
+            throw new IllegalStateException("Ya existe una regla con id " + normalized.getId());
+        }
+        next.put(normalized.getId(), normalized);
+        rules = new RuleIndex(next);
+        return normalized;
+    }
+
+    public synchronized boolean deleteRule(String id) {
+        if (!rules.rules.containsKey(id)) {
+            return false;
+        }
+        LinkedHashMap<String, AlertRule> next = new LinkedHashMap<>(rules.rules);
+        next.remove(id);
+        rules = new RuleIndex(next);
+        return true;
+    }
+
+    /**
+     * Avisos activos con las lecturas del tick actual.
+     */
+    public List<Alert> getActiveAlerts() {
+        return List.copyOf(current().active.values());
+    }
+
+    /**
+     * Cambios de estado de los avisos a partir del momento de la suscripción.
+     * Un cliente que se queda atrás más de {@link #MAX_BUFFERED_EVENTS} eventos
+     * pierde la suscripción y debe reconectarse.
+     */
+    public Multi<AlertEvent> events() {
+        return events.onOverflow().buffer(MAX_BUFFERED_EVENTS);
+    }
+
+    private Evaluation current() {
+        Tenant tenant = weatherService.defaultTenant();
+        long tick = weatherField.currentTick();
+        StationRegistry registry = tenant.catalog().snapshot();
+        RuleIndex index = rules;
+        Evaluation e = evaluation;
+        if (e != null && e.tick == tick && e.registry == registry && e.rules == index) {
+            return e;
+        }
+        synchronized (this) {
+            e = evaluation;
+            // Se relee todo dentro del cerrojo para evaluar la versión más reciente
+            tick = weatherField.currentTick();
+            registry = tenant.catalog().snapshot();
+            index = rules;
+            if (e == null || e.tick != tick || e.registry != registry || e.rules != index) {
+                e = evaluate(tenant, tick, registry, index);
+            }
+            return e;
+        }
+    }
+
+    private Evaluation evaluate(Tenant tenant, long tick, StationRegistry registry, RuleIndex index) {
+        if (plan == null || plan.registry != registry || plan.rules != index) {
+            plan = new Plan(registry, index);
+        }
+        Map<String, Alert> previous = evaluation == null ? Map.of() : evaluation.active;
+        Map<String, Alert> active = new LinkedHashMap<>();
+        List<AlertEvent> changes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<WeatherStation> stations = registry.all();
+        List<CompiledRule> matches = new ArrayList<>();
+        double[] values = new double[METRICS.length];
+        for (int i = 0; i < stations.size(); i++) {
+            Scope[] scopes = plan.scopesOf[i];
+            if (scopes.length == 0) {
+                continue;
+            }
+            WeatherStation station = stations.get(i);
+            WeatherData reading = weatherService.getCurrentWeather(tenant, registry, station);
+            Arrays.fill(values, Double.NaN);
+            matches.clear();
+            for (Scope scope : scopes) {
+                for (int m : scope.metrics) {
+                    if (Double.isNaN(values[m])) {
+                        values[m] = METRICS[m].value.applyAsDouble(reading);
+                    }
+                    scope.thresholds[m].match(values[m], matches);
+                }
+            }
+            for (CompiledRule match : matches) {
+                String key = match.rule.getId() + '\u0000' + station.getId();
+                Alert before = previous.get(key);
+                Alert alert = match.toAlert(station, values[match.metric.ordinal()],
+                    before != null ? before.getTriggeredAt() : now);
+                active.put(key, alert);
+                if (before == null) {
+                    changes.add(new AlertEvent(ACTIVATED, alert, now));
+                }
+            }
+        }
+        previous.forEach((key, alert) -> {
+            if (!active.containsKey(key)) {
+                changes.add(new AlertEvent(FINISHED, alert, now));
+            }
+        });
+
+        Evaluation e = new Evaluation(tick, registry, index, Collections.unmodifiableMap(active));
+        evaluation = e;
+        changes.forEach(events::onNext);
+        return e;
+    }
+
+    private static AlertRule normalized(AlertRule rule) {
+        Metric metric = Metric.parse(rule.getMetric());
+        Operator operator = Operator.parse(rule.getOperator());
+        if (rule.getThreshold() == null || !Double.isFinite(rule.getThreshold())) {
+            throw new IllegalArgumentException("El umbral es requerido");
+        }
+        String severity = rule.getSeverity() == null ? "AMARILLO" : rule.getSeverity().trim().toUpperCase();
+        if (!SEVERITIES.contains(severity)) {
+            throw new IllegalArgumentException("Nivel de aviso no soportado: " + rule.getSeverity());
+        }
+        String id = blankToNull(rule.getId());
+        String name = blankToNull(rule.getName());
+        return new AlertRule(id,
+            name != null ? name : metric.jsonName() + " " + operator.symbol + " " + rule.getThreshold(),
+            metric.jsonName(), operator.symbol, rule.getThreshold(), severity,
+            blankToNull(rule.getCountry()), blankToNull(rule.getRegion()), blankToNull(rule.getStationId()));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * Clave de ámbito: país, región y estación, vacíos si la regla no los restringe.
+     */
+    private static String scopeKey(String country, String region, String stationId) {
+        return (country == null ? "" : country) + '\u0000' + (region == null ? "" : region)
+            + '\u0000' + (stationId == null ? "" : stationId);
+    }
+
+    private enum Metric {
+        TEMPERATURE(WeatherData::getTemperature),
+        FEELS_LIKE(WeatherData::getFeelsLike),
+        HUMIDITY(WeatherData::getHumidity),
+        PRESSURE(WeatherData::getPressure),
+        WIND_SPEED(WeatherData::getWindSpeed),
+        VISIBILITY(WeatherData::getVisibility),
+        UV_INDEX(WeatherData::getUvIndex),
+        PRECIPITATION_24H(WeatherData::getPrecipitation24h);
+
+        final ToDoubleFunction<WeatherData> value;
+
+        Metric(ToDoubleFunction<WeatherData> value) {
+            this.value = value;
+        }
+
+        String jsonName() {
+            return name().toLowerCase();
+        }
+
+        // Admite el nombre JSON (wind_speed) y el de Java (windSpeed)
+        static Metric parse(String metric) {
+            if (metric != null) {
+                String key = metric.trim().replace("_", "").toUpperCase();
+                for (Metric m : values()) {
+                    if (m.name().replace("_", "").equals(key)) {
+                        return m;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Variable no soportada: " + metric);
+        }
+    }
+
+    private enum Operator {
+        GT(">", true, false), GE(">=", true, true), LT("<", false, false), LE("<=", false, true);
+
+        final String symbol;
+        final boolean above;
+        final boolean inclusive;
+
+        Operator(String symbol, boolean above, boolean inclusive) {
+            this.symbol = symbol;
+            this.above = above;
+            this.inclusive = inclusive;
+        }
+
+        static Operator parse(String operator) {
+            if (operator != null) {
+                for (Operator o : values()) {
+                    if (o.symbol.equals(operator.trim())) {
+                        return o;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Operador no soportado: " + operator + " (use >, >=, < o <=)");
+        }
+    }
+
+    private record CompiledRule(AlertRule rule, Metric metric, Operator operator, double threshold) {
+
+        Alert toAlert(WeatherStation station, double value, LocalDateTime triggeredAt) {
+            return new Alert(rule.getId(), rule.getName(), rule.getSeverity(), station.getId(), station.getCity(),
+                station.getCountry(), station.getRegion(), rule.getMetric(), rule.getOperator(),
+                rule.getThreshold(), value, triggeredAt);
+        }
+    }
+
+    /**
+     * Reglas de un ámbito y una variable, ordenadas por umbral.
+     */
+    private static final class Thresholds {
+
+        // Reglas > y >= por umbral ascendente: se cumplen las de umbral por debajo del valor
+        final double[] aboveThresholds;
+        final CompiledRule[] above;
+        // Reglas < y <= por umbral ascendente: se cumplen las de umbral por encima del valor
+        final double[] belowThresholds;
+        final CompiledRule[] below;
+
+        Thresholds(List<CompiledRule> rules) {
+            Comparator<CompiledRule> byThreshold = Comparator.comparingDouble(CompiledRule::threshold);
+            above = rules.stream().filter(r -> r.operator.above).sorted(byThreshold).toArray(CompiledRule[]::new);
+            below = rules.stream().filter(r -> !r.operator.above).sorted(byThreshold).toArray(CompiledRule[]::new);
+            aboveThresholds = Arrays.stream(above).mapToDouble(CompiledRule::threshold).toArray();
+            belowThresholds = Arrays.stream(below).mapToDouble(CompiledRule::threshold).toArray();
+        }
+
+        void match(double value, List<CompiledRule> out) {
+            // Las que tienen umbral igual al valor solo se cumplen si son inclusivas
+            int end = firstGreater(aboveThresholds, value);
+            for (int i = 0; i < end; i++) {
+                if (aboveThresholds[i] < value || above[i].operator.inclusive) {
+                    out.add(above[i]);
+                }
+            }
+            for (int i = firstNotLess(belowThresholds, value); i < below.length; i++) {
+                if (belowThresholds[i] > value || below[i].operator.inclusive) {
+                    out.add(below[i]);
+                }
+            }
+        }
+
+        private static int firstGreater(double[] sorted, double value) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int firstNotLess(double[] sorted, double value) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Reglas de un ámbito, agrupadas por variable.
+     */
+    private static final class Scope {
+
+        final Thresholds[] thresholds = new Thresholds[METRICS.length];
+        final int[] metrics;
+
+        Scope(List<CompiledRule> rules) {
+            Map<Metric, List<CompiledRule>> byMetric = new EnumMap<>(Metric.class);
+            for (CompiledRule rule : rules) {
+                byMetric.computeIfAbsent(rule.metric, m -> new ArrayList<>()).add(rule);
+            }
+            byMetric.forEach((metric, list) -> thresholds[metric.ordinal()] = new Thresholds(list));
+            metrics = byMetric.keySet().stream().mapToInt(Metric::ordinal).toArray();
+        }
+    }
+
+    /**
+     * Conjunto inmutable de reglas y su índice compilado.
+     */
+    private static final class RuleIndex {
+
+        final Map<String, AlertRule> rules;
+        final Map<String, Scope> scopes = new HashMap<>();
+
+        RuleIndex(LinkedHashMap<String, AlertRule> rules) {
+            this.rules = Collections.unmodifiableMap(rules);
+            Map<String, List<CompiledRule>> byScope = new HashMap<>();
+            for (AlertRule rule : rules.values()) {
+                byScope.computeIfAbsent(scopeKey(rule.getCountry(), rule.getRegion(), rule.getStationId()),
+                    k -> new ArrayList<>()).add(new CompiledRule(rule, Metric.parse(rule.getMetric()),
+                    Operator.parse(rule.getOperator()), rule.getThreshold()));
+            }
+            byScope.forEach((key, list) -> scopes.put(key, new Scope(list)));
+        }
+    }
+
+    /**
+     * Ámbitos con reglas que afectan a cada estación de una instantánea del catálogo.
+     */
+    private static final class Plan {
+
+        private static final Scope[] NONE = new Scope[0];
+
+        final StationRegistry registry;
+        final RuleIndex rules;
+        final Scope[][] scopesOf;
+
+        Plan(StationRegistry registry, RuleIndex rules) {
+            this.registry = registry;
+            this.rules = rules;
+            List<WeatherStation> stations = registry.all();
+            scopesOf = new Scope[stations.size()][];
+            List<Scope> found = new ArrayList<>(8);
+            for (int i = 0; i < stations.size(); i++) {
+                WeatherStation station = stations.get(i);
+                found.clear();
+                // Cada combinación de país, región y estación que una regla puede exigir
+                for (int mask = 0; mask < 8 && !rules.scopes.isEmpty(); mask++) {
+                    if ((mask & 2) != 0 && station.getRegion() == null) {
+                        continue;
+                    }
+                    Scope scope = rules.scopes.get(scopeKey(
+                        (mask & 1) != 0 ? station.getCountry() : null,
+                        (mask & 2) != 0 ? station.getRegion() : null,
+                        (mask & 4) != 0 ? station.getId() : null));
+                    if (scope != null) {
+                        found.add(scope);
+                    }
+                }
+                scopesOf[i] = found.isEmpty() ? NONE : found.toArray(NONE);
+            }
+        }
+    }
+
+    private record Evaluation(long tick, StationRegistry registry, RuleIndex rules, Map<String, Alert> active) {}
+}
@@ -0,0 +1,106 @@
+package com.meteorologia.service;
+
+import java.time.LocalDate;
+
+/**
+ * Climatología de temperatura a nivel del mar, tabulada al arrancar.
+ *
+ * Una tabla de floats indexada por banda de latitud (cada 5°), día del año y
+ * hora solar local recoge la media anual según la latitud, el ciclo estacional
+ * (invertido en el hemisferio sur) y el ciclo diario, con mínima al amanecer y
+ * máxima a media tarde. La consulta interpola entre bandas y horas vecinas: son
+ * cuatro lecturas de array, sin ramas por latitud ni trigonometría.
+ */
+public final class Climatology {
+
+    // Horas solares locales de la mínima y la máxima diarias
+    public static final int COLDEST_HOUR = 6;
+    public static final int WARMEST_HOUR = 15;
+
+    // Gradiente térmico vertical de la atmósfera estándar, en °C por metro
+    private static final double LAPSE_RATE = 0.0065;
+
+    private static final double BAND_DEGREES = 5;
+    private static final int BANDS = (int) (180 / BAND_DEGREES) + 1;
+    private static final int DAYS = 366;
+    private static final int HOURS = 24;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final float[] TABLE = new float[BANDS * DAYS * HOURS];
+
+    static {
+        for (int b = 0; b < BANDS; b++) {
+            double s = Math.sin(Math.toRadians(-90 + b * BAND_DEGREES));
+            double mean = 28 - 32 * s * s;
+            for (int d = 0; d < DAYS; d++) {
+                // Positivo en el verano del hemisferio de la banda
+                double season = s * Math.cos(2 * Math.PI * (d - 199) / 365.25);
+                double seasonal = 18 * Math.abs(s) * season;
+                double halfRange = 4.5 + 2.5 * season;
+                int row = (b * DAYS + d) * HOURS;
+                for (int h = 0; h < HOURS; h++) {
+                    TABLE[row + h] = (float) (mean + seasonal + halfRange * diurnal(h));
+                }
+            }
+        }
+    }
+
+    private Climatology() {}
+
+    /**
+     * Índice del día del año (0-365) de un instante, en UTC.
+     */
+    public static int dayIndex(long epochMillis) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMillis, MILLIS_PER_DAY)).getDayOfYear() - 1;
+    }
+
+    /**
+     * Hora solar local (0-24) de un instante en una longitud.
+     */
+    public static double solarHour(long epochMillis, double longitude) {
+        double utcHours = Math.floorMod(epochMillis, MILLIS_PER_DAY) / 3_600_000.0;
+        double hour = (utcHours + longitude / 15) % HOURS;
+        return hour < 0 ? hour + HOURS : hour;
+    }
+
+    /**
+     * Temperatura climatológica a nivel del mar en un punto e instante.
+     */
+    public static double temperature(double latitude, double longitude, long epochMillis) {
+        return temperature(latitude, dayIndex(epochMillis), solarHour(epochMillis, longitude));
+    }
+
+    /**
+     * Temperatura climatológica a nivel del mar para un día del año y una hora
+     * solar ya calculados, para recorridos que los comparten entre muchos puntos.
+     */
+    public static double temperature(double latitude, int day, double solarHour) {
+        double y = (Math.max(-90, Math.min(90, latitude)) + 90) / BAND_DEGREES;
+        int b0 = Math.min((int) y, BANDS - 2);
+        double fy = y - b0;
+        int h0 = Math.min((int) solarHour, HOURS - 1);
+        int h1 = h0 + 1 == HOURS ? 0 : h0 + 1;
+        double fx = solarHour - h0;
+        int row0 = (b0 * DAYS + day) * HOURS;
+        int row1 = row0 + DAYS * HOURS;
+        double south = TABLE[row0 + h0] + fx * (TABLE[row0 + h1] - TABLE[row0 + h0]);
+        double north = TABLE[row1 + h0] + fx * (TABLE[row1 + h1] - TABLE[row1 + h0]);
+        return south + fy * (north - south);
+    }
+
+    /**
+     * Corrección por altitud de la estación; sin altitud conocida se asume nivel del mar.
+     */
+    public static double elevationOffset(Integer altitudeMeters) {
+        return altitudeMeters == null ? 0 : -LAPSE_RATE * altitudeMeters;
+    }
+
+    // Forma del ciclo diario en [-1, 1]: sube de la mínima a la máxima y baja durante la noche
+    private static double diurnal(double hour) {
+        if (hour >= COLDEST_HOUR && hour <= WARMEST_HOUR) {
+            return -Math.cos(Math.PI * (hour - COLDEST_HOUR) / (WARMEST_HOUR - COLDEST_HOUR));
+        }
+        double sinceMax = hour > WARMEST_HOUR ? hour - WARMEST_HOUR : hour + HOURS - WARMEST_HOUR;
+        return Math.cos(Math.PI * sinceMax / (HOURS - WARMEST_HOUR + COLDEST_HOUR));
+    }
+}
@@ -0,0 +1,156 @@
+package com.meteorologia.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meteorologia.model.FaultProfile;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Perfiles activos de inyección de latencia y fallos.
+ *
+ * El conjunto de perfiles es inmutable y se sustituye entero en tiempo de
+ * ejecución; las peticiones lo leen con una única lectura volátil.
+ */
+@ApplicationScoped
+public class FaultInjector {
+
+    private static final Logger LOG = Logger.getLogger(FaultInjector.class);
+
+    private static final long MAX_LATENCY_MS = 300_000;
+    private static final Set<String> DISTRIBUTIONS = Set.of("NONE", "FIXED", "UNIFORM", "LOGNORMAL", "BIMODAL");
+
+    @ConfigProperty(name = "meteorologia.faults.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "meteorologia.faults.profiles-file")
+    Optional<String> profilesFile;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private volatile List<FaultProfile> profiles = List.of();
+
+    void onStart(@Observes StartupEvent event) {
+        if (profilesFile.isEmpty()) {
+            return;
+        }
+        try {
+            List<FaultProfile> loaded = objectMapper.readValue(Files.readAllBytes(Path.of(profilesFile.get())),
+                new TypeReference<List<FaultProfile>>() {});
+            replaceProfiles(loaded);
+            LOG.infof("Cargados %d perfiles de fallos desde %s", loaded.size(), profilesFile.get());
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.errorf(e, "No se pudieron cargar los perfiles de fallos desde %s", profilesFile.get());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<FaultProfile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * Sustituye atómicamente el conjunto activo de perfiles.
+     *
+     * @throws IllegalArgumentException si algún perfil no es válido
+     */
+    public void replaceProfiles(List<FaultProfile> newProfiles) {
+        List<FaultProfile> validated = new ArrayList<>(newProfiles);
+        validated.forEach(FaultInjector::validate);
+        // El prefijo más largo gana: se ordena una vez para que la búsqueda pare en el primero
+        validated.sort(Comparator.comparingInt((FaultProfile p) -> p.getEndpoint().length()).reversed());
+        profiles = List.copyOf(validated);
+    }
+
+    public void clear() {
+        profiles = List.of();
+    }
+
+    public FaultProfile match(String method, String path) {
+        if (!enabled) {
+            return null;
+        }
+        for (FaultProfile profile : profiles) {
+            if (matchesPrefix(path, profile.getEndpoint())
+                    && (profile.getMethod() == null || profile.getMethod().equalsIgnoreCase(method))) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    // Prefijo por segmentos completos: /api/weather/current no captura /api/weather/currently
+    private static boolean matchesPrefix(String path, String endpoint) {
+        return path.startsWith(endpoint)
+            && (path.length() == endpoint.length() || endpoint.endsWith("/") || path.charAt(endpoint.length()) == '/');
+    }
+
+    public long sampleLatencyMillis(FaultProfile profile) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latency = switch (profile.getLatencyDistribution().toUpperCase()) {
+            case "FIXED" -> profile.getLatencyMs();
+            case "UNIFORM" -> profile.getLatencyMinMs()
+                + random.nextDouble() * (profile.getLatencyMaxMs() - profile.getLatencyMinMs());
+            case "LOGNORMAL" -> profile.getLatencyMs() * Math.exp(profile.getLognormalSigma() * random.nextGaussian());
+            case "BIMODAL" -> random.nextDouble() < profile.getSlowRatio()
+                ? profile.getLatencyMaxMs() : profile.getLatencyMs();
+            default -> 0;
+        };
+        return (long) Math.max(0, Math.min(MAX_LATENCY_MS, latency));
+    }
+
+    public boolean shouldFail(FaultProfile profile) {
+        return profile.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < profile.getErrorRate();
+    }
+
+    private static void validate(FaultProfile profile) {
+        if (profile.getEndpoint() == null || !profile.getEndpoint().startsWith("/")) {
+            throw new IllegalArgumentException("El endpoint debe ser un prefijo de ruta que empiece por /");
+        }
+        if (profile.getLatencyDistribution() == null
+                || !DISTRIBUTIONS.contains(profile.getLatencyDistribution().toUpperCase())) {
+            throw new IllegalArgumentException("Distribución de latencia no soportada: " + profile.getLatencyDistribution());
+        }
+        requireNonNegative(profile.getLatencyMs(), "latency_ms");
+        requireNonNegative(profile.getLatencyMinMs(), "latency_min_ms");
+        requireNonNegative(profile.getLatencyMaxMs(), "latency_max_ms");
+        requireNonNegative(profile.getDripIntervalMs(), "drip_interval_ms");
+        requireNonNegative(profile.getDripChunkBytes(), "drip_chunk_bytes");
+        requireNonNegative(profile.getLognormalSigma(), "lognormal_sigma");
+        if (profile.getLatencyDistribution().equalsIgnoreCase("UNIFORM")
+                && profile.getLatencyMinMs() > profile.getLatencyMaxMs()) {
+            throw new IllegalArgumentException("latency_min_ms no puede ser mayor que latency_max_ms");
+        }
+        requireRatio(profile.getErrorRate(), "error_rate");
+        requireRatio(profile.getSlowRatio(), "slow_ratio");
+        if (profile.getErrorStatus() == null || profile.getErrorStatus() < 400 || profile.getErrorStatus() > 599) {
+            throw new IllegalArgumentException("error_status debe estar entre 400 y 599");
+        }
+    }
+
+    private static void requireNonNegative(Number value, String name) {
+        if (value == null || value.doubleValue() < 0) {
+            throw new IllegalArgumentException(name + " debe ser mayor o igual a 0");
+        }
+    }
+
+    private static void requireRatio(Double value, String name) {
+        if (value == null || value < 0 || value > 1) {
+            throw new IllegalArgumentException(name + " debe estar entre 0 y 1");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.meteorologia.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.meteorologia.exception.GlobalExceptionHandler;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proyección de campos (?fields=) sobre los modelos de la API.
+ *
+ * Cada proyección distinta se compila una sola vez en un {@link ObjectWriter}
+ * con un filtro de propiedades, de modo que Jackson solo serializa los campos
+ * pedidos en lugar de filtrar después la respuesta completa.
+ */
+@ApplicationScoped
+public class FieldProjections {
+
+    public static final String FILTER_ID = "projection";
+
+    private static final int MAX_CACHED_PROJECTIONS = 256;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final Map<Class<?>, Map<String, String>> propertyNames = new ConcurrentHashMap<>();
+    private final Map<String, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Serializa {@code entity} (un modelo o una colección de modelos de tipo {@code modelType})
+     * con solo los campos indicados, separados por comas.
+     *
+     * @throws IllegalArgumentException si algún campo no existe en el modelo
+     */
+    public byte[] write(Object entity, Class<?> modelType, String fields) throws JsonProcessingException {
+        return writerFor(modelType, fields).writeValueAsBytes(entity);
+    }
+
+    /**
+     * Respuesta 200 con {@code entity} proyectada a {@code fields}, o sin proyectar si no se
+     * piden campos. Un campo desconocido da un 400 en lugar de lanzar.
+     */
+    public Response.ResponseBuilder ok(Object entity, Class<?> modelType, String fields) throws JsonProcessingException {
+        if (fields == null || fields.trim().isEmpty()) {
+            return Response.ok(entity);
+        }
+        try {
+            // Escritor compilado y cacheado por proyección: solo se serializan los campos pedidos
+            return Response.ok(write(entity, modelType, fields), MediaType.APPLICATION_JSON);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(GlobalExceptionHandler.errorBody(e.getMessage()));
+        }
+    }
+
+    public ObjectWriter writerFor(Class<?> modelType, String fields) {
+        Set<String> projected = resolve(modelType, fields);
+        String key = modelType.getName() + ':' + String.join(",", projected);
+        ObjectWriter writer = writers.get(key);
+        if (writer == null) {
+            writer = objectMapper.writer(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(projected)));
+            // Las proyecciones son elegidas por el cliente: se acota la caché
+            if (writers.size() < MAX_CACHED_PROJECTIONS) {
+                writers.putIfAbsent(key, writer);
+            }
+        }
+        return writer;
+    }
+
+    private Set<String> resolve(Class<?> modelType, String fields) {
+        Map<String, String> names = propertyNames.computeIfAbsent(modelType, this::introspect);
+        // Orden canónico para que "a,b" y "b,a" compartan escritor
+        Set<String> projected = new TreeSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String jsonName = names.get(name);
+            if (jsonName == null) {
+                throw new IllegalArgumentException("Campo desconocido: " + name);
+            }
+            projected.add(jsonName);
+        }
+        if (projected.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un campo");
+        }
+        return projected;
+    }
+
+    private Map<String, String> introspect(Class<?> modelType) {
+        // Se aceptan tanto el nombre JSON (station_id) como el de Java (stationId)
+        BeanDescription description = objectMapper.getSerializationConfig()
+            .introspect(objectMapper.constructType(modelType));
+        Map<String, String> names = new HashMap<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            names.put(property.getName(), property.getName());
+            names.put(property.getInternalName(), property.getName());
+        }
+        return names;
+    }
+}
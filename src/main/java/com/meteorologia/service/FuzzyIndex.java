@@ -0,0 +1,231 @@
+package com.meteorologia.service;
+
+import com.meteorologia.jfr.StationSearchEvent;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Índice aproximado de nombres (ciudad, región, país) para búsquedas con erratas.
+ *
+ * Cada valor se normaliza a una clave sin acentos, en minúsculas y con los
+ * separadores reducidos a un espacio ("Cataluña" y "cataluna" dan la misma
+ * clave); los valores de varias palabras se indexan también palabra a palabra.
+ * Las claves se indexan por trigramas: una clave a distancia de edición k de la
+ * consulta comparte con ella al menos |trigramas| - 3k trigramas, así que solo
+ * se verifican las claves que superan ese recuento. Cuando la consulta es tan
+ * corta que el filtro no descarta nada se recorren solo las claves de longitud
+ * compatible. La verificación es una Levenshtein acotada que abandona en cuanto
+ * la fila supera k.
+ */
+final class FuzzyIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private final String[] keys;
+    private final int[][] ordinals;
+    private final Map<Long, int[]> trigrams;
+    // Claves agrupadas por longitud para el recorrido sin filtro
+    private final int[][] byLength;
+
+    FuzzyIndex(Map<String, List<Integer>> postings) {
+        int n = postings.size();
+        this.keys = new String[n];
+        this.ordinals = new int[n][];
+        Map<Long, List<Integer>> grams = new HashMap<>();
+        Map<Integer, List<Integer>> lengths = new HashMap<>();
+        int maxLength = 0;
+        int k = 0;
+        for (Map.Entry<String, List<Integer>> entry : postings.entrySet()) {
+            keys[k] = entry.getKey();
+            ordinals[k] = entry.getValue().stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+            for (long gram : trigramsOf(keys[k])) {
+                grams.computeIfAbsent(gram, g -> new ArrayList<>()).add(k);
+            }
+            lengths.computeIfAbsent(keys[k].length(), l -> new ArrayList<>()).add(k);
+            maxLength = Math.max(maxLength, keys[k].length());
+            k++;
+        }
+        this.trigrams = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, list) -> trigrams.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+        this.byLength = new int[maxLength + 1][];
+        for (int l = 0; l <= maxLength; l++) {
+            List<Integer> list = lengths.get(l);
+            byLength[l] = list == null ? new int[0] : list.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Añade a {@code postings} las claves de {@code value} (el valor completo y sus palabras) para el ordinal dado.
+     */
+    static void addKeys(Map<String, List<Integer>> postings, String value, int ordinal) {
+        String folded = fold(value);
+        if (folded.isEmpty()) {
+            return;
+        }
+        postings.computeIfAbsent(folded, key -> new ArrayList<>()).add(ordinal);
+        if (folded.indexOf(' ') >= 0) {
+            for (String token : folded.split(" ")) {
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    postings.computeIfAbsent(token, key -> new ArrayList<>()).add(ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clave normalizada: NFD sin marcas diacríticas, minúsculas y separadores como un único espacio.
+     */
+    static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Ordinales que coinciden con la consulta a distancia como mucho {@code maxDistance},
+     * de más a menos parecidos y sin repetir, hasta {@code limit}.
+     */
+    int[] search(String query, int maxDistance, int limit, int capacity) {
+        String q = fold(query);
+        if (q.isEmpty()) {
+            return new int[0];
+        }
+        StationSearchEvent event = new StationSearchEvent();
+        event.begin();
+        int k = Math.min(maxDistance, q.length() - 1);
+        List<Match> matches = new ArrayList<>();
+        int[] candidates = candidates(q, k);
+        for (int key : candidates) {
+            int distance = distance(q, keys[key], k);
+            if (distance <= k) {
+                double similarity = 1.0 - (double) distance / Math.max(q.length(), keys[key].length());
+                matches.add(new Match(key, distance, similarity));
+            }
+        }
+        matches.sort((a, b) -> a.distance != b.distance ? Integer.compare(a.distance, b.distance)
+            : a.similarity != b.similarity ? Double.compare(b.similarity, a.similarity)
+            : Integer.compare(keys[a.key].length(), keys[b.key].length()));
+
+        BitSet seen = new BitSet(capacity);
+        int[] result = new int[Math.min(limit, 64)];
+        int size = 0;
+        collect:
+        for (Match match : matches) {
+            for (int ordinal : ordinals[match.key]) {
+                if (size == limit) {
+                    break collect;
+                }
+                if (!seen.get(ordinal)) {
+                    seen.set(ordinal);
+                    if (size == result.length) {
+                        result = Arrays.copyOf(result, Math.min(limit, size * 2));
+                    }
+                    result[size++] = ordinal;
+                }
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "fuzzy";
+            event.candidatesScanned = candidates.length;
+            event.results = size;
+            event.commit();
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private int[] candidates(String q, int k) {
+        long[] grams = trigramsOf(q);
+        int threshold = grams.length - 3 * k;
+        if (threshold <= 0) {
+            // El filtro de trigramas no descarta nada: solo importan las longitudes
+            int count = 0;
+            int from = Math.max(0, q.length() - k);
+            int to = Math.min(byLength.length - 1, q.length() + k);
+            for (int l = from; l <= to; l++) {
+                count += byLength[l].length;
+            }
+            int[] all = new int[count];
+            int pos = 0;
+            for (int l = from; l <= to; l++) {
+                System.arraycopy(byLength[l], 0, all, pos, byLength[l].length);
+                pos += byLength[l].length;
+            }
+            return all;
+        }
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (long gram : grams) {
+            int[] posting = trigrams.get(gram);
+            if (posting != null) {
+                for (int key : posting) {
+                    counts.merge(key, 1, Integer::sum);
+                }
+            }
+        }
+        return counts.entrySet().stream()
+            .filter(e -> e.getValue() >= threshold && Math.abs(keys[e.getKey()].length() - q.length()) <= k)
+            .mapToInt(Map.Entry::getKey)
+            .toArray();
+    }
+
+    // Trigramas distintos de la clave con un espacio de relleno a cada lado
+    private static long[] trigramsOf(String key) {
+        String padded = " " + key + " ";
+        long[] grams = new long[Math.max(0, padded.length() - 2)];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    // Levenshtein limitada a la banda |i - j| <= k; devuelve k + 1 si la supera
+    static int distance(String a, String b, int k) {
+        if (Math.abs(a.length() - b.length()) > k) {
+            return k + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - k);
+            int to = Math.min(b.length(), i + k);
+            current[0] = i;
+            if (from > 1) {
+                current[from - 1] = k + 1;
+            }
+            int rowMin = from == 1 ? i : k + 1;
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j] + 1, current[j - 1] + 1));
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (to < b.length()) {
+                current[to + 1] = k + 1;
+            }
+            if (rowMin > k) {
+                return k + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], k + 1);
+    }
+
+    private record Match(int key, int distance, double similarity) {}
+}
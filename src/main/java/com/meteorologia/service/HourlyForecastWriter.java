@@ -0,0 +1,64 @@
+package com.meteorologia.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.meteorologia.jfr.GenerationEvent;
+import com.meteorologia.model.HourlyForecast;
+import com.meteorologia.model.WeatherStation;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Escribe el pronóstico horario de varias estaciones como un único array JSON.
+ *
+ * Cada punto se genera, se serializa y se descarta antes del siguiente, y la
+ * salida se vacía al terminar cada estación: el primer byte sale sin haber
+ * construido los miles de puntos de una petición de muchas estaciones, y la
+ * memoria no depende ni del número de estaciones ni de las horas pedidas.
+ */
+@ApplicationScoped
+public class HourlyForecastWriter {
+
+    public static final int MAX_HOURS = 240;
+    public static final int MAX_STATIONS = 100;
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    public void write(OutputStream out, List<WeatherStation> stations, int hours) throws IOException {
+        // Sin vaciar tras cada punto: se vacía por estación
+        ObjectWriter writer = objectMapper.writerFor(HourlyForecast.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (WeatherStation station : stations) {
+                // La generación es perezosa: el evento incluye la serialización de los puntos
+                GenerationEvent event = new GenerationEvent();
+                event.begin();
+                Iterator<HourlyForecast> points = weatherService.getHourlyForecast(station, hours).iterator();
+                while (points.hasNext()) {
+                    writer.writeValue(generator, points.next());
+                }
+                generator.flush();
+                event.end();
+                if (event.shouldCommit()) {
+                    event.kind = "hourly";
+                    event.stationId = station.getId();
+                    event.items = hours;
+                    event.commit();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.WeatherData;
+import com.meteorologia.model.WeatherStation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché acotada de lecturas por celda de coordenadas.
+ *
+ * Las coordenadas se ajustan a una rejilla de celdas de {@code cellDegrees}
+ * grados y todas las peticiones de una celda comparten entrada: la estación más
+ * cercana, válida mientras no cambie la instantánea del catálogo, y la lectura
+ * generada en el centro de la celda, válida durante el tick. La memoria está
+ * acotada a {@code maxCells} celdas repartidas en segmentos LRU independientes,
+ * de modo que el tráfico denso de una ciudad se queda en unas pocas celdas
+ * calientes y las lejanas se desalojan.
+ */
+public final class LocationCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final double cellDegrees;
+    private final long columns;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public LocationCache(double cellDegrees, int maxCells) {
+        if (cellDegrees <= 0) {
+            throw new IllegalArgumentException("El tamaño de celda debe ser positivo");
+        }
+        this.cellDegrees = cellDegrees;
+        this.columns = (long) Math.ceil(360 / cellDegrees) + 1;
+        int perSegment = Math.max(1, maxCells / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    public long cellOf(double latitude, double longitude) {
+        long row = (long) Math.floor((latitude + 90) / cellDegrees);
+        long col = (long) Math.floor((longitude + 180) / cellDegrees);
+        return row * columns + col;
+    }
+
+    public double centerLatitude(long cell) {
+        return (cell / columns + 0.5) * cellDegrees - 90;
+    }
+
+    public double centerLongitude(long cell) {
+        return (cell % columns + 0.5) * cellDegrees - 180;
+    }
+
+    public Entry get(long cell) {
+        return segmentOf(cell).get(cell);
+    }
+
+    public void put(long cell, Entry entry) {
+        segmentOf(cell).put(cell, entry);
+    }
+
+    /**
+     * Número de celdas guardadas, sumando los segmentos uno a uno.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentOf(long cell) {
+        return segments[(int) ((cell ^ (cell >>> 17)) & (SEGMENTS - 1))];
+    }
+
+    /**
+     * Estación resuelta para la celda en la instantánea {@code registry} y lectura del tick {@code tick}.
+     */
+    public record Entry(StationRegistry registry, WeatherStation station, long tick, WeatherData reading) {}
+
+    private static final class Segment {
+        private final Map<Long, Entry> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized Entry get(long cell) {
+            return entries.get(cell);
+        }
+
+        synchronized void put(long cell, Entry entry) {
+            entries.put(cell, entry);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
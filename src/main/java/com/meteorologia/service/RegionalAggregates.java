@@ -0,0 +1,276 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.RegionalWeather;
+import com.meteorologia.model.WeatherData;
+import com.meteorologia.model.WeatherStation;
+import io.quarkus.runtime.ShutdownEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lecturas actuales agregadas por país o por región.
+ *
+ * Las estaciones de una instantánea del catálogo se reparten en tramos que se
+ * generan y reducen en paralelo con fork-join; cada tramo acumula en arrays
+ * primitivos indexados por grupo y los tramos se combinan elemento a elemento.
+ * El resultado se guarda hasta que cambian el tick del campo o el catálogo.
+ *
+ * Los tramos corren en un pool fork-join propio y no en el común: el común lo
+ * comparten los parallel streams y CompletableFuture de todo el proceso, y un
+ * agregado grande no debe dejarlos sin hilos (ni al revés).
+ */
+@ApplicationScoped
+public class RegionalAggregates {
+
+    static final int LEAF_STATIONS = 256;
+
+    public enum GroupBy { COUNTRY, REGION }
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    WeatherField weatherField;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("regional-aggregates-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        pool.shutdownNow();
+    }
+
+    public List<RegionalWeather> aggregate(GroupBy groupBy) {
+        // El inquilino se resuelve aquí: los tramos corren en hilos del pool, sin petición en curso
+        Tenant tenant = weatherService.currentTenant();
+        Bucket current = current(tenant);
+        // El cálculo se hace fuera del mapa: computeIfAbsent bloquearía su celda durante toda
+        // la reducción. Quien publica el futuro calcula; el resto espera ese mismo resultado
+        CompletableFuture<List<RegionalWeather>> mine = new CompletableFuture<>();
+        CompletableFuture<List<RegionalWeather>> running = current.results.putIfAbsent(groupBy, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            mine.complete(compute(tenant, current.registry, groupBy));
+        } catch (RuntimeException | Error e) {
+            // Sin resultado: la siguiente petición lo vuelve a intentar
+            current.results.remove(groupBy, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        return mine.join();
+    }
+
+    private static List<RegionalWeather> await(CompletableFuture<List<RegionalWeather>> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Bucket current(Tenant tenant) {
+        AtomicReference<Bucket> slot = tenant.slot(RegionalAggregates.class);
+        while (true) {
+            long tick = weatherField.currentTick();
+            StationRegistry registry = tenant.catalog().snapshot();
+            Bucket b = slot.get();
+            if (b != null && b.tick == tick && b.registry == registry) {
+                return b;
+            }
+            // Solo una petición sustituye el bucket; las demás usan el suyo y esperan su resultado
+            Bucket next = new Bucket(tick, registry);
+            if (slot.compareAndSet(b, next)) {
+                return next;
+            }
+        }
+    }
+
+    private List<RegionalWeather> compute(Tenant tenant, StationRegistry registry, GroupBy groupBy) {
+        List<WeatherStation> stations = registry.all();
+        Map<String, Integer> groups = new HashMap<>();
+        List<WeatherStation> representatives = new ArrayList<>();
+        int[] groupOf = new int[stations.size()];
+        for (int i = 0; i < groupOf.length; i++) {
+            WeatherStation station = stations.get(i);
+            String key = groupBy == GroupBy.COUNTRY
+                ? station.getCountry()
+                : station.getCountry() + '\u0000' + station.getRegion();
+            groupOf[i] = groups.computeIfAbsent(key, k -> {
+                representatives.add(station);
+                return representatives.size() - 1;
+            });
+        }
+
+        Accumulators totals = pool.invoke(
+            new ReduceTask(tenant, registry, stations, groupOf, representatives.size(), 0, stations.size()));
+
+        List<RegionalWeather> result = new ArrayList<>(representatives.size());
+        for (int g = 0; g < representatives.size(); g++) {
+            result.add(totals.toRegionalWeather(g, representatives.get(g), groupBy));
+        }
+        result.sort(Comparator.comparing(RegionalWeather::getCountry, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RegionalWeather::getRegion, Comparator.nullsLast(Comparator.naturalOrder())));
+        return Collections.unmodifiableList(result);
+    }
+
+    private static final class Bucket {
+        final long tick;
+        final StationRegistry registry;
+        final Map<GroupBy, CompletableFuture<List<RegionalWeather>>> results = new ConcurrentHashMap<>();
+
+        Bucket(long tick, StationRegistry registry) {
+            this.tick = tick;
+            this.registry = registry;
+        }
+    }
+
+    private final class ReduceTask extends RecursiveTask<Accumulators> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Tenant tenant;
+        private final StationRegistry registry;
+        private final List<WeatherStation> stations;
+        private final int[] groupOf;
+        private final int groupCount;
+        private final int from;
+        private final int to;
+
+        ReduceTask(Tenant tenant, StationRegistry registry, List<WeatherStation> stations, int[] groupOf,
+                   int groupCount, int from, int to) {
+            this.tenant = tenant;
+            this.registry = registry;
+            this.stations = stations;
+            this.groupOf = groupOf;
+            this.groupCount = groupCount;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Accumulators compute() {
+            if (to - from <= LEAF_STATIONS) {
+                Accumulators accumulators = new Accumulators(groupCount);
+                for (int i = from; i < to; i++) {
+                    accumulators.add(groupOf[i], weatherService.getCurrentWeather(tenant, registry, stations.get(i)));
+                }
+                return accumulators;
+            }
+            int mid = (from + to) >>> 1;
+            ReduceTask left = new ReduceTask(tenant, registry, stations, groupOf, groupCount, from, mid);
+            left.fork();
+            Accumulators right = new ReduceTask(tenant, registry, stations, groupOf, groupCount, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Suma, mínimo y máximo por grupo de cada variable, en arrays primitivos.
+     */
+    private static final class Accumulators {
+
+        final int[] count;
+        final double[] temperatureSum, temperatureMin, temperatureMax;
+        final long[] humiditySum;
+        final int[] humidityMin, humidityMax;
+        final double[] precipitationSum, precipitationMin, precipitationMax;
+
+        Accumulators(int groups) {
+            count = new int[groups];
+            temperatureSum = new double[groups];
+            temperatureMin = filled(groups, Double.POSITIVE_INFINITY);
+            temperatureMax = filled(groups, Double.NEGATIVE_INFINITY);
+            humiditySum = new long[groups];
+            humidityMin = new int[groups];
+            humidityMax = new int[groups];
+            Arrays.fill(humidityMin, Integer.MAX_VALUE);
+            Arrays.fill(humidityMax, Integer.MIN_VALUE);
+            precipitationSum = new double[groups];
+            precipitationMin = filled(groups, Double.POSITIVE_INFINITY);
+            precipitationMax = filled(groups, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(int g, WeatherData reading) {
+            count[g]++;
+            double temperature = reading.getTemperature();
+            temperatureSum[g] += temperature;
+            temperatureMin[g] = Math.min(temperatureMin[g], temperature);
+            temperatureMax[g] = Math.max(temperatureMax[g], temperature);
+            int humidity = reading.getHumidity();
+            humiditySum[g] += humidity;
+            humidityMin[g] = Math.min(humidityMin[g], humidity);
+            humidityMax[g] = Math.max(humidityMax[g], humidity);
+            double precipitation = reading.getPrecipitation24h();
+            precipitationSum[g] += precipitation;
+            precipitationMin[g] = Math.min(precipitationMin[g], precipitation);
+            precipitationMax[g] = Math.max(precipitationMax[g], precipitation);
+        }
+
+        Accumulators merge(Accumulators other) {
+            for (int g = 0; g < count.length; g++) {
+                count[g] += other.count[g];
+                temperatureSum[g] += other.temperatureSum[g];
+                temperatureMin[g] = Math.min(temperatureMin[g], other.temperatureMin[g]);
+                temperatureMax[g] = Math.max(temperatureMax[g], other.temperatureMax[g]);
+                humiditySum[g] += other.humiditySum[g];
+                humidityMin[g] = Math.min(humidityMin[g], other.humidityMin[g]);
+                humidityMax[g] = Math.max(humidityMax[g], other.humidityMax[g]);
+                precipitationSum[g] += other.precipitationSum[g];
+                precipitationMin[g] = Math.min(precipitationMin[g], other.precipitationMin[g]);
+                precipitationMax[g] = Math.max(precipitationMax[g], other.precipitationMax[g]);
+            }
+            return this;
+        }
+
+        RegionalWeather toRegionalWeather(int g, WeatherStation representative, GroupBy groupBy) {
+            RegionalWeather weather = new RegionalWeather();
+            weather.setCountry(representative.getCountry());
+            weather.setRegion(groupBy == GroupBy.REGION ? representative.getRegion() : null);
+            weather.setStationCount(count[g]);
+            weather.setMeanTemperature(round(temperatureSum[g] / count[g]));
+            weather.setMinTemperature(temperatureMin[g]);
+            weather.setMaxTemperature(temperatureMax[g]);
+            weather.setMeanHumidity(round((double) humiditySum[g] / count[g]));
+            weather.setMinHumidity(humidityMin[g]);
+            weather.setMaxHumidity(humidityMax[g]);
+            weather.setMeanPrecipitation24h(round(precipitationSum[g] / count[g]));
+            weather.setMinPrecipitation24h(precipitationMin[g]);
+            weather.setMaxPrecipitation24h(precipitationMax[g]);
+            return weather;
+        }
+
+        private static double[] filled(int size, double value) {
+            double[] array = new double[size];
+            Arrays.fill(array, value);
+            return array;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 10.0) / 10.0;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.meteorologia.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Agrupa peticiones idénticas concurrentes en una sola ejecución (single flight).
+ *
+ * La primera petición de una clave publica un futuro en el mapa con
+ * {@code putIfAbsent}, genera y serializa la respuesta y completa el futuro; las
+ * que llegan mientras tanto esperan ese futuro y devuelven los mismos bytes. Al
+ * terminar la clave se retira, así que no es una caché: una petición posterior
+ * vuelve a calcular. Un fallo de la ejecución se propaga a todas las que la
+ * esperaban. La espera está acotada: si la primera se atasca, las demás
+ * calculan por su cuenta pasado el plazo en lugar de retener su hilo.
+ */
+@ApplicationScoped
+public class RequestCoalescer {
+
+    /**
+     * Cálculo de una respuesta ya serializada; {@code null} indica que no existe el recurso.
+     */
+    @FunctionalInterface
+    public interface Computation {
+        byte[] compute() throws Exception;
+    }
+
+    @ConfigProperty(name = "meteorologia.coalescing.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "meteorologia.coalescing.wait-timeout-ms", defaultValue = "2000")
+    long waitTimeoutMs;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private Counter executed;
+    private Counter shared;
+    private Counter timedOut;
+
+    @PostConstruct
+    void init() {
+        executed = Counter.builder("meteorologia.coalescing.executed")
+            .description("Respuestas calculadas por la petición que abrió la clave")
+            .register(registry);
+        shared = Counter.builder("meteorologia.coalescing.shared")
+            .description("Peticiones servidas con el resultado de otra en curso")
+            .register(registry);
+        timedOut = Counter.builder("meteorologia.coalescing.timed_out")
+            .description("Peticiones que dejaron de esperar a otra en curso y calcularon por su cuenta")
+            .register(registry);
+        Gauge.builder("meteorologia.coalescing.in_flight", inFlight, Map::size)
+            .description("Claves con un cálculo en curso")
+            .register(registry);
+    }
+
+    public byte[] coalesce(String key, Computation computation) throws Exception {
+        if (!enabled) {
+            return computation.compute();
+        }
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            shared.increment();
+            try {
+                return await(running);
+            } catch (TimeoutException e) {
+                timedOut.increment();
+                return computation.compute();
+            }
+        }
+        executed.increment();
+        try {
+            byte[] result = computation.compute();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Solo se retira el futuro propio: otra clave igual puede haberse abierto ya
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private byte[] await(CompletableFuture<byte[]> running) throws Exception {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        }
+    }
+}
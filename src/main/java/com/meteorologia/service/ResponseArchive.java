@@ -0,0 +1,241 @@
+package com.meteorologia.service;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Archivo de respuestas para el modo grabación/reproducción.
+ *
+ * En modo {@code RECORD} cada respuesta se añade al final del fichero como un
+ * registro {@code [clave][cabeceras][estado][cuerpo]}, con las cabeceras como
+ * líneas {@code Nombre: valor} (Content-Type incluido). En modo {@code REPLAY} el
+ * fichero se proyecta en memoria y al arrancar se construye un índice hash
+ * (direccionamiento abierto) de clave a desplazamiento; las respuestas se
+ * sirven como vistas del fichero, sin generarlas ni serializarlas.
+ */
+@ApplicationScoped
+public class ResponseArchive {
+
+    private static final Logger LOG = Logger.getLogger(ResponseArchive.class);
+
+    /** claveBytes, cabecerasBytes, estado, cuerpoBytes */
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    @ConfigProperty(name = "meteorologia.replay.mode", defaultValue = "off")
+    String mode;
+
+    @ConfigProperty(name = "meteorologia.replay.file")
+    Optional<String> file;
+
+    private Mode activeMode = Mode.OFF;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    // Desplazamiento + 1 de cada registro; 0 es un hueco libre
+    private long[] slots = new long[0];
+    private int entries;
+
+    void onStart(@Observes StartupEvent event) {
+        Mode configured = Mode.valueOf(mode.trim().toUpperCase());
+        if (configured == Mode.OFF) {
+            return;
+        }
+        if (file.isEmpty()) {
+            throw new IllegalStateException("meteorologia.replay.file es obligatorio en modo " + configured);
+        }
+        try {
+            if (configured == Mode.RECORD) {
+                channel = FileChannel.open(Path.of(file.get()),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                LOG.infof("Grabando respuestas en %s", file.get());
+            } else {
+                load(Path.of(file.get()));
+                LOG.infof("Reproduciendo %d respuestas desde %s", entries, file.get());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el archivo de respuestas " + file.get(), e);
+        }
+        activeMode = configured;
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    public Mode getMode() {
+        return activeMode;
+    }
+
+    /**
+     * Clave canónica de una petición: método, ruta y parámetros ordenados por nombre,
+     * p. ej. {@code GET /api/stations?limit=10&type=AUTOMATICA}.
+     */
+    public static String key(String method, String path, String canonicalQuery) {
+        return canonicalQuery == null || canonicalQuery.isEmpty()
+            ? method + ' ' + path
+            : method + ' ' + path + '?' + canonicalQuery;
+    }
+
+    /**
+     * Codifica un registro tal y como se guarda en el archivo.
+     */
+    public static ByteBuffer encode(String key, Map<String, List<String>> headers, int status, byte[] body) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        StringBuilder lines = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value -> lines.append(name).append(": ").append(value).append('\n')));
+        byte[] headerBytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + keyBytes.length + headerBytes.length + body.length);
+        record.putInt(keyBytes.length).putInt(headerBytes.length).putInt(status).putInt(body.length);
+        record.put(keyBytes).put(headerBytes).put(body);
+        return record.flip();
+    }
+
+    /**
+     * Añade una respuesta al archivo (solo en modo grabación).
+     */
+    public void record(String key, Map<String, List<String>> headers, int status, byte[] body) {
+        if (activeMode != Mode.RECORD) {
+            return;
+        }
+        ByteBuffer record = encode(key, headers, status, body);
+        // Un único escritor a la vez para que los registros no se entrelacen
+        synchronized (this) {
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            } catch (IOException e) {
+                LOG.errorf(e, "No se pudo grabar la respuesta de %s", key);
+            }
+        }
+    }
+
+    /**
+     * Busca la respuesta grabada para una clave (solo en modo reproducción).
+     *
+     * @return la respuesta, o {@code null} si no se grabó
+     */
+    public Replayed lookup(String key) {
+        if (activeMode != Mode.REPLAY || entries == 0) {
+            return null;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int mask = slots.length - 1;
+        for (int i = hash(keyBytes) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int offset = (int) (slots[i] - 1);
+            if (keyEquals(offset, keyBytes)) {
+                return read(offset);
+            }
+        }
+        return null;
+    }
+
+    private void load(Path path) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (readChannel.size() > Integer.MAX_VALUE) {
+                throw new IOException("El archivo de respuestas supera los 2 GB");
+            }
+            mapped = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+        }
+
+        // Primera pasada: contar registros completos para dimensionar la tabla
+        int count = 0;
+        int offset = 0;
+        while (isComplete(offset)) {
+            count++;
+            offset = next(offset);
+        }
+        if (offset != mapped.limit()) {
+            LOG.warnf("Registro incompleto al final de %s (byte %d): se ignora", path, offset);
+        }
+
+        // Ocupación máxima del 50% para que las secuencias de sondeo sean cortas
+        slots = new long[Integer.highestOneBit(Math.max(1, count)) << 2];
+        int mask = slots.length - 1;
+        for (offset = 0; count-- > 0; offset = next(offset)) {
+            byte[] keyBytes = keyBytes(offset);
+            int i = hash(keyBytes) & mask;
+            while (slots[i] != 0 && !keyEquals((int) (slots[i] - 1), keyBytes)) {
+                i = (i + 1) & mask;
+            }
+            // Si una clave se grabó varias veces, prevalece la última
+            if (slots[i] == 0) {
+                entries++;
+            }
+            slots[i] = offset + 1L;
+        }
+    }
+
+    private boolean isComplete(int offset) {
+        if (mapped.limit() - offset < HEADER_BYTES) {
+            return false;
+        }
+        long length = HEADER_BYTES + (long) mapped.getInt(offset) + mapped.getInt(offset + 4) + mapped.getInt(offset + 12);
+        return mapped.getInt(offset) >= 0 && mapped.getInt(offset + 4) >= 0 && mapped.getInt(offset + 12) >= 0
+            && offset + length <= mapped.limit();
+    }
+
+    private int next(int offset) {
+        return offset + HEADER_BYTES + mapped.getInt(offset) + mapped.getInt(offset + 4) + mapped.getInt(offset + 12);
+    }
+
+    private byte[] keyBytes(int offset) {
+        byte[] keyBytes = new byte[mapped.getInt(offset)];
+        mapped.get(offset + HEADER_BYTES, keyBytes);
+        return keyBytes;
+    }
+
+    private boolean keyEquals(int offset, byte[] keyBytes) {
+        if (mapped.getInt(offset) != keyBytes.length) {
+            return false;
+        }
+        return mapped.slice(offset + HEADER_BYTES, keyBytes.length).equals(ByteBuffer.wrap(keyBytes));
+    }
+
+    private Replayed read(int offset) {
+        int keyLength = mapped.getInt(offset);
+        int headersLength = mapped.getInt(offset + 4);
+        int headersOffset = offset + HEADER_BYTES + keyLength;
+        byte[] headerBytes = new byte[headersLength];
+        mapped.get(headersOffset, headerBytes);
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String line : new String(headerBytes, StandardCharsets.UTF_8).split("\n")) {
+            int colon = line.indexOf(": ");
+            if (colon > 0) {
+                headers.computeIfAbsent(line.substring(0, colon), name -> new ArrayList<>()).add(line.substring(colon + 2));
+            }
+        }
+        // Vista de solo lectura sobre el fichero proyectado: el cuerpo no se copia
+        ByteBuffer body = mapped.slice(headersOffset + headersLength, mapped.getInt(offset + 12)).asReadOnlyBuffer();
+        return new Replayed(headers, mapped.getInt(offset + 8), body);
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int h = Arrays.hashCode(keyBytes);
+        return h ^ (h >>> 16);
+    }
+
+    public record Replayed(Map<String, List<String>> headers, int status, ByteBuffer body) {}
+}
@@ -0,0 +1,141 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.WeatherStation;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Orto y ocaso con el algoritmo de posición solar de la NOAA.
+ *
+ * La declinación y la ecuación del tiempo solo dependen del día del año, así
+ * que se calculan una vez para los 366 días. Por estación basta el ángulo
+ * horario del orto: se guarda una tabla compacta con los minutos UTC de orto y
+ * ocaso de cada día del año, y la hora local se formatea desde cadenas "HH:mm"
+ * precalculadas, sin {@code String.format}.
+ */
+public final class SolarTimes {
+
+    private static final int DAYS = 366;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    // Cenit del orto: 90° más la refracción atmosférica y el radio aparente del Sol
+    private static final double COS_ZENITH = Math.cos(Math.toRadians(90.833));
+    // Sin orto u ocaso ese día (día o noche polar)
+    private static final short NONE = Short.MIN_VALUE;
+
+    private static final double[] DECLINATION = new double[DAYS];
+    private static final double[] EQUATION_OF_TIME = new double[DAYS];
+    private static final String[] CLOCK = new String[MINUTES_PER_DAY];
+
+    static {
+        for (int d = 0; d < DAYS; d++) {
+            // Año fraccionario a mediodía del día d + 1
+            double g = 2 * Math.PI / 365 * d;
+            EQUATION_OF_TIME[d] = 229.18 * (0.000075 + 0.001868 * Math.cos(g) - 0.032077 * Math.sin(g)
+                - 0.014615 * Math.cos(2 * g) - 0.040849 * Math.sin(2 * g));
+            DECLINATION[d] = 0.006918 - 0.399912 * Math.cos(g) + 0.070257 * Math.sin(g)
+                - 0.006758 * Math.cos(2 * g) + 0.000907 * Math.sin(2 * g)
+                - 0.002697 * Math.cos(3 * g) + 0.00148 * Math.sin(3 * g);
+        }
+        for (int m = 0; m < MINUTES_PER_DAY; m++) {
+            int h = m / 60;
+            int min = m % 60;
+            CLOCK[m] = new String(new char[] {
+                (char) ('0' + h / 10), (char) ('0' + h % 10), ':', (char) ('0' + min / 10), (char) ('0' + min % 10)});
+        }
+    }
+
+    private SolarTimes() {}
+
+    /**
+     * Tabla de la estación, en su zona horaria o, si no tiene una válida, en la
+     * hora solar de su huso (longitud / 15).
+     */
+    public static Table table(WeatherStation station) {
+        return new Table(station.getLatitude(), station.getLongitude(), zoneOf(station.getTimeZone()));
+    }
+
+    /**
+     * Orto de un punto sin estación, en la hora de su huso; {@code null} en día o noche polar.
+     */
+    public static String sunrise(double latitude, double longitude, LocalDate date) {
+        int day = date.getDayOfYear() - 1;
+        return format(utcMinutes(longitude, day, hourAngle(latitude, day)), nauticalOffset(longitude));
+    }
+
+    /**
+     * Ocaso de un punto sin estación, en la hora de su huso; {@code null} en día o noche polar.
+     */
+    public static String sunset(double latitude, double longitude, LocalDate date) {
+        int day = date.getDayOfYear() - 1;
+        return format(utcMinutes(longitude, day, -hourAngle(latitude, day)), nauticalOffset(longitude));
+    }
+
+    // Minutos UTC en que el Sol tiene ese ángulo horario: positivo para el orto, negativo para el ocaso
+    private static short utcMinutes(double longitude, int day, double hourAngle) {
+        return Double.isNaN(hourAngle) ? NONE
+            : (short) Math.round(720 - 4 * (longitude + hourAngle) - EQUATION_OF_TIME[day]);
+    }
+
+    // Ángulo horario del orto en grados, o NaN si el Sol no cruza el horizonte
+    private static double hourAngle(double latitude, int day) {
+        double phi = Math.toRadians(latitude);
+        double cosH = COS_ZENITH / (Math.cos(phi) * Math.cos(DECLINATION[day]))
+            - Math.tan(phi) * Math.tan(DECLINATION[day]);
+        return cosH < -1 || cosH > 1 ? Double.NaN : Math.toDegrees(Math.acos(cosH));
+    }
+
+    private static String format(short utcMinutes, int offsetMinutes) {
+        return utcMinutes == NONE ? null : CLOCK[Math.floorMod(utcMinutes + offsetMinutes, MINUTES_PER_DAY)];
+    }
+
+    private static int nauticalOffset(double longitude) {
+        return (int) Math.round(longitude / 15) * 60;
+    }
+
+    private static ZoneId zoneOf(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return null;
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Minutos UTC de orto y ocaso de cada día del año para una posición.
+     */
+    public static final class Table {
+
+        private final short[] sunrise = new short[DAYS];
+        private final short[] sunset = new short[DAYS];
+        private final ZoneId zone;
+        private final int fixedOffset;
+
+        private Table(double latitude, double longitude, ZoneId zone) {
+            for (int d = 0; d < DAYS; d++) {
+                double hourAngle = hourAngle(latitude, d);
+                sunrise[d] = utcMinutes(longitude, d, hourAngle);
+                sunset[d] = utcMinutes(longitude, d, -hourAngle);
+            }
+            this.zone = zone;
+            this.fixedOffset = nauticalOffset(longitude);
+        }
+
+        public String sunrise(LocalDate date) {
+            return format(sunrise[date.getDayOfYear() - 1], offsetMinutes(date));
+        }
+
+        public String sunset(LocalDate date) {
+            return format(sunset[date.getDayOfYear() - 1], offsetMinutes(date));
+        }
+
+        private int offsetMinutes(LocalDate date) {
+            // El desfase cambia con el horario de verano: se toma el de mediodía de ese día
+            return zone == null ? fixedOffset : zone.getRules().getOffset(date.atTime(12, 0)).getTotalSeconds() / 60;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.WeatherStation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Catálogo mutable de estaciones con lecturas sin bloqueos.
+ *
+ * Los lectores obtienen con una única lectura volátil una {@link StationRegistry}
+ * inmutable y trabajan sobre ella de principio a fin. Los escritores encolan su
+ * cambio y el primero que consigue el cerrojo aplica todos los pendientes sobre
+ * una copia y publica una sola instantánea nueva, de modo que el coste de copiar
+ * y reindexar se reparte entre las escrituras concurrentes.
+ */
+public final class StationCatalog {
+
+    private final Queue<Write<?>> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private volatile StationRegistry snapshot;
+    private volatile boolean modified;
+
+    public StationCatalog(List<WeatherStation> stations) {
+        this.snapshot = new StationRegistry(stations);
+    }
+
+    public StationRegistry snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Si se ha publicado algún cambio desde que se creó el catálogo.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Aplica un cambio y espera a que quede publicado.
+     *
+     * El cambio debe validar antes de modificar el lote: si lanza una excepción,
+     * esta se propaga solo a quien lo pidió y el resto del lote se publica igual.
+     */
+    public <T> T write(Function<Batch, T> change) {
+        Write<T> write = new Write<>(change);
+        pending.add(write);
+        commitLock.lock();
+        try {
+            // Otro escritor puede haber publicado ya este cambio dentro de su lote
+            if (!write.done) {
+                commitPending();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+        if (write.failure != null) {
+            throw write.failure;
+        }
+        return write.result;
+    }
+
+    private void commitPending() {
+        Batch batch = new Batch(snapshot);
+        List<Write<?>> drained = new ArrayList<>();
+        for (Write<?> write; (write = pending.poll()) != null; ) {
+            write.apply(batch);
+            drained.add(write);
+        }
+        if (batch.modified) {
+            modified = true;
+            snapshot = new StationRegistry(Arrays.copyOf(batch.slots, batch.size), snapshot);
+        }
+        drained.forEach(write -> write.done = true);
+    }
+
+    /**
+     * Vista de trabajo de un lote de escrituras sobre la última instantánea.
+     */
+    public static final class Batch {
+
+        private WeatherStation[] slots;
+        private int size;
+        private final Map<String, Integer> ordinals;
+        private boolean modified;
+
+        private Batch(StationRegistry base) {
+            this.slots = base.copySlots();
+            this.size = slots.length;
+            this.ordinals = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                if (slots[i] != null) {
+                    ordinals.put(slots[i].getId(), i);
+                }
+            }
+        }
+
+        public WeatherStation find(String id) {
+            Integer ordinal = ordinals.get(id);
+            return ordinal == null ? null : slots[ordinal];
+        }
+
+        public boolean contains(String id) {
+            return ordinals.containsKey(id);
+        }
+
+        /**
+         * Número de ordinales asignados, incluidos los del propio lote.
+         */
+        public int capacity() {
+            return size;
+        }
+
+        /**
+         * Inserta la estación con un ordinal nuevo o sustituye la existente con el mismo id.
+         */
+        public void put(WeatherStation station) {
+            Integer ordinal = ordinals.get(station.getId());
+            if (ordinal == null) {
+                if (size == slots.length) {
+                    slots = Arrays.copyOf(slots, Math.max(8, size * 2));
+                }
+                ordinal = size++;
+                ordinals.put(station.getId(), ordinal);
+            }
+            slots[ordinal] = station;
+            modified = true;
+        }
+
+        public boolean remove(String id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return false;
+            }
+            slots[ordinal] = null;
+            modified = true;
+            return true;
+        }
+    }
+
+    private static final class Write<T> {
+
+        private final Function<Batch, T> change;
+        private T result;
+        private RuntimeException failure;
+        // Protegido por commitLock
+        private boolean done;
+
+        private Write(Function<Batch, T> change) {
+            this.change = change;
+        }
+
+        private void apply(Batch batch) {
+            try {
+                result = change.apply(batch);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.meteorologia.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.meteorologia.model.WeatherStation;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Importación masiva de estaciones desde CSV o NDJSON.
+ *
+ * La entrada se lee registro a registro sin cargarla entera en memoria. Cada
+ * fila se valida como el resto de altas (coordenadas igual que en la búsqueda
+ * por proximidad) y las cadenas repetidas (país, región, ciudad, tipo...) se
+ * comparten. Las filas válidas se publican en el catálogo con una única
+ * escritura, así que los índices se construyen una sola vez al final.
+ */
+@ApplicationScoped
+public class StationImporter {
+
+    private static final Logger LOG = Logger.getLogger(StationImporter.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    public enum Format { CSV, NDJSON }
+
+    @ConfigProperty(name = "meteorologia.stations.import-file")
+    Optional<String> importFile;
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    void onStart(@Observes StartupEvent event) {
+        if (importFile.isEmpty()) {
+            return;
+        }
+        Path path = Path.of(importFile.get());
+        String name = path.getFileName().toString().toLowerCase();
+        Format format = name.endsWith(".csv") ? Format.CSV : Format.NDJSON;
+        try (InputStream in = Files.newInputStream(path)) {
+            ImportResult result = importStations(in, format);
+            LOG.infof("Importadas %d estaciones desde %s (%d filas rechazadas)",
+                result.imported(), path, result.rejected());
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.errorf(e, "No se pudieron importar las estaciones de %s", path);
+        }
+    }
+
+    /**
+     * Importa las estaciones de {@code in}. Las filas inválidas se rechazan y se
+     * informan; las estaciones con un id ya existente se sustituyen.
+     *
+     * @throws IllegalArgumentException si la entrada no se puede interpretar en el formato indicado
+     */
+    public ImportResult importStations(InputStream in, Format format) throws IOException {
+        Interner interner = new Interner();
+        List<WeatherStation> accepted = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int[] rejected = {0};
+        LocalDateTime now = LocalDateTime.now();
+
+        Consumer<Row> handler = row -> {
+            try {
+                accepted.add(WeatherService.validated(interner.apply(row.station().get()), now));
+            } catch (IllegalArgumentException e) {
+                rejected[0]++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Fila " + row.number() + ": " + e.getMessage());
+                }
+            }
+        };
+        if (format == Format.CSV) {
+            readCsv(in, handler);
+        } else {
+            readNdjson(in, handler);
+        }
+
+        int imported = weatherService.importStations(accepted);
+        return new ImportResult(imported, rejected[0], errors);
+    }
+
+    private void readNdjson(InputStream in, Consumer<Row> handler) throws IOException {
+        try (MappingIterator<WeatherStation> rows = objectMapper.readerFor(WeatherStation.class).readValues(in)) {
+            int number = 0;
+            while (rows.hasNextValue()) {
+                number++;
+                WeatherStation station;
+                try {
+                    station = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // Un tipo erróneo solo invalida esa fila: el iterador salta al final del objeto
+                    String error = describe(e);
+                    handler.accept(new Row(number, () -> {
+                        throw new IllegalArgumentException(error);
+                    }));
+                    continue;
+                }
+                handler.accept(new Row(number, () -> station));
+            }
+        } catch (JsonProcessingException e) {
+            // Solo los errores de sintaxis: con ellos no se sabe dónde empieza la fila siguiente
+            throw new IllegalArgumentException("NDJSON mal formado: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static String describe(JsonMappingException e) {
+        List<JsonMappingException.Reference> path = e.getPath();
+        String field = path.isEmpty() ? null : path.get(path.size() - 1).getFieldName();
+        if (field == null) {
+            return "Registro inválido: " + e.getOriginalMessage();
+        }
+        if (e instanceof InvalidFormatException invalid) {
+            return "Valor inválido en " + field + ": " + invalid.getValue();
+        }
+        return "Valor inválido en " + field;
+    }
+
+    private static void readCsv(InputStream in, Consumer<Row> handler) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Column[] columns = new Column[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Column.forHeader(header.get(i));
+        }
+        for (List<String> values; (values = csv.next()) != null; ) {
+            if (values.size() == 1 && values.get(0).isEmpty()) {
+                continue;
+            }
+            // La conversión de tipos se hace dentro del manejador para rechazar solo esa fila
+            List<String> record = values;
+            handler.accept(new Row(csv.recordNumber() - 1, () -> toStation(columns, record)));
+        }
+    }
+
+    private static WeatherStation toStation(Column[] columns, List<String> values) {
+        WeatherStation station = new WeatherStation();
+        for (int i = 0; i < columns.length && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (columns[i] != null && !value.isEmpty()) {
+                columns[i].set(station, value);
+            }
+        }
+        return station;
+    }
+
+    /**
+     * Columnas reconocidas, por nombre JSON o Java (sin distinguir mayúsculas ni guiones bajos).
+     */
+    private enum Column {
+        ID { void set(WeatherStation s, String v) { s.setId(v); } },
+        NAME { void set(WeatherStation s, String v) { s.setName(v); } },
+        CITY { void set(WeatherStation s, String v) { s.setCity(v); } },
+        COUNTRY { void set(WeatherStation s, String v) { s.setCountry(v); } },
+        REGION { void set(WeatherStation s, String v) { s.setRegion(v); } },
+        LATITUDE { void set(WeatherStation s, String v) { s.setLatitude(number(v, "latitude")); } },
+        LONGITUDE { void set(WeatherStation s, String v) { s.setLongitude(number(v, "longitude")); } },
+        ALTITUDE { void set(WeatherStation s, String v) { s.setAltitude((int) Math.round(number(v, "altitude"))); } },
+        TIMEZONE { void set(WeatherStation s, String v) { s.setTimeZone(v); } },
+        STATIONTYPE { void set(WeatherStation s, String v) { s.setStationType(v); } },
+        STATUS { void set(WeatherStation s, String v) { s.setStatus(v); } },
+        INSTALLATIONDATE { void set(WeatherStation s, String v) { s.setInstallationDate(date(v)); } },
+        RESPONSIBLEORGANIZATION { void set(WeatherStation s, String v) { s.setResponsibleOrganization(v); } },
+        CONTACTINFO { void set(WeatherStation s, String v) { s.setContactInfo(v); } },
+        DESCRIPTION { void set(WeatherStation s, String v) { s.setDescription(v); } };
+
+        abstract void set(WeatherStation station, String value);
+
+        static Column forHeader(String header) {
+            String key = header.replace("\uFEFF", "").trim().replace("_", "").toUpperCase();
+            return switch (key) {
+                case "LAT" -> LATITUDE;
+                case "LON", "LNG" -> LONGITUDE;
+                case "TYPE" -> STATIONTYPE;
+                default -> Arrays.stream(values()).filter(c -> c.name().equals(key)).findFirst().orElse(null);
+            };
+        }
+
+        private static double number(String value, String column) {
+            double number;
+            try {
+                number = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor numérico inválido en " + column + ": " + value);
+            }
+            // parseDouble acepta "NaN" e "Infinity"
+            if (!Double.isFinite(number)) {
+                throw new IllegalArgumentException("Valor numérico inválido en " + column + ": " + value);
+            }
+            return number;
+        }
+
+        private static LocalDateTime date(String value) {
+            try {
+                return value.length() == 10 ? LocalDateTime.parse(value + "T00:00:00") : LocalDateTime.parse(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Fecha inválida en installation_date: " + value);
+            }
+        }
+    }
+
+    private record Row(int number, Supplier<WeatherStation> station) {}
+
+    /**
+     * Comparte una única instancia por valor de los atributos que se repiten entre estaciones.
+     */
+    private static final class Interner {
+
+        private final Map<String, String> pool = new HashMap<>();
+
+        WeatherStation apply(WeatherStation s) {
+            s.setCity(intern(s.getCity()));
+            s.setCountry(intern(s.getCountry()));
+            s.setRegion(intern(s.getRegion()));
+            s.setTimeZone(intern(s.getTimeZone()));
+            s.setStationType(intern(s.getStationType()));
+            s.setStatus(intern(s.getStatus()));
+            s.setResponsibleOrganization(intern(s.getResponsibleOrganization()));
+            s.setContactInfo(intern(s.getContactInfo()));
+            return s;
+        }
+
+        private String intern(String value) {
+            return value == null ? null : pool.computeIfAbsent(value, v -> v);
+        }
+    }
+
+    /**
+     * Lector CSV (RFC 4180) de registro en registro: comillas dobles, comillas
+     * escapadas y saltos de línea dentro de campos entrecomillados.
+     */
+    private static final class CsvReader {
+
+        private final BufferedReader reader;
+        private final StringBuilder field = new StringBuilder();
+        private int records;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        int recordNumber() {
+            return records;
+        }
+
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            boolean quoted = false;
+            field.setLength(0);
+            for (; c != -1; c = reader.read()) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("CSV mal formado: comillas sin cerrar en el registro " + (records + 1));
+            }
+            values.add(field.toString());
+            records++;
+            return values;
+        }
+    }
+
+    public record ImportResult(int imported, int rejected, List<String> errors) {}
+}
@@ -0,0 +1,295 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.WeatherStation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Instantánea inmutable del catálogo de estaciones con un orden ordinal estable.
+ *
+ * El ordinal de cada estación es su posición en el registro y es la base de la
+ * paginación por cursor: un cursor codifica el ordinal desde el que continuar,
+ * así que cada página cuesta lo que sus elementos y no hay que saltar offsets.
+ * Los ordinales no se reutilizan: una estación dada de baja deja un hueco
+ * ({@code null}) para que los cursores sigan siendo válidos entre
+ * instantáneas. Ciudad, país, estado y tipo se indexan como listas
+ * ordenadas de ordinales por valor distinto; ciudad, región y país además en
+ * un {@link FuzzyIndex} para búsquedas sin acentos y con erratas.
+ */
+public final class StationRegistry {
+
+    private static final String CURSOR_PREFIX = "o:";
+
+    // Filtros "contiene" ya resueltos por instantánea; el texto lo elige el cliente, así que se acota
+    private static final int MAX_CACHED_FILTERS = 256;
+
+    private final WeatherStation[] stations;
+    private final List<WeatherStation> live;
+    private final Map<String, Integer> ordinals;
+    private final Map<String, int[]> byCity;
+    private final Map<String, int[]> byCountry;
+    private final Map<String, int[]> byStatus;
+    private final Map<String, int[]> byType;
+    private final FuzzyIndex fuzzy;
+    // Orto y ocaso por día del año de cada hueco
+    private final SolarTimes.Table[] solar;
+    // Ordinales ordenados de todos los grupos que contienen el texto, por atributo y texto
+    private final Map<String, int[]> containsPostings = new ConcurrentHashMap<>();
+
+    public StationRegistry(List<WeatherStation> stations) {
+        this(stations.toArray(new WeatherStation[0]), null);
+    }
+
+    /**
+     * Construye la instantánea sobre {@code slots}, del que pasa a ser propietaria.
+     * Las tablas solares de las estaciones que no han cambiado respecto a
+     * {@code previous} se reutilizan en lugar de recalcularse.
+     */
+    StationRegistry(WeatherStation[] slots, StationRegistry previous) {
+        this.stations = slots;
+        this.ordinals = new HashMap<>(slots.length * 2);
+        this.solar = new SolarTimes.Table[slots.length];
+        List<WeatherStation> present = new ArrayList<>(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                ordinals.put(slots[i].getId(), i);
+                present.add(slots[i]);
+                boolean unchanged = previous != null && i < previous.stations.length && previous.stations[i] == slots[i];
+                solar[i] = unchanged ? previous.solar[i] : SolarTimes.table(slots[i]);
+            }
+        }
+        this.live = Collections.unmodifiableList(present);
+        this.byCity = index(WeatherStation::getCity);
+        this.byCountry = index(WeatherStation::getCountry);
+        this.byStatus = index(WeatherStation::getStatus);
+        this.byType = index(WeatherStation::getStationType);
+        this.fuzzy = fuzzyIndex();
+    }
+
+    private FuzzyIndex fuzzyIndex() {
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < stations.length; i++) {
+            if (stations[i] != null) {
+                FuzzyIndex.addKeys(postings, stations[i].getCity(), i);
+                FuzzyIndex.addKeys(postings, stations[i].getRegion(), i);
+                FuzzyIndex.addKeys(postings, stations[i].getCountry(), i);
+            }
+        }
+        return new FuzzyIndex(postings);
+    }
+
+    private Map<String, int[]> index(Function<WeatherStation, String> attribute) {
+        Map<String, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < stations.length; i++) {
+            String value = stations[i] == null ? null : attribute.apply(stations[i]);
+            if (value != null) {
+                groups.computeIfAbsent(value.toLowerCase(), k -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, int[]> index = new HashMap<>(groups.size() * 2);
+        groups.forEach((key, list) -> index.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        return index;
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    /**
+     * Número de ordinales asignados, incluidos los huecos de estaciones dadas de baja.
+     */
+    public int capacity() {
+        return stations.length;
+    }
+
+    /**
+     * Copia de los huecos para construir la siguiente instantánea.
+     */
+    WeatherStation[] copySlots() {
+        return stations.clone();
+    }
+
+    public int ordinalOf(String id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Tabla de orto y ocaso de la estación con ese ordinal.
+     */
+    public SolarTimes.Table solarTimes(int ordinal) {
+        return solar[ordinal];
+    }
+
+    public Optional<WeatherStation> findById(String id) {
+        int ordinal = ordinalOf(id);
+        return ordinal < 0 ? Optional.empty() : Optional.of(stations[ordinal]);
+    }
+
+    public List<WeatherStation> all() {
+        return live;
+    }
+
+    /**
+     * Estaciones cuya ciudad, región o país se parece a {@code query} (sin distinguir
+     * acentos ni mayúsculas y con hasta {@code maxDistance} ediciones), de más a menos parecidas.
+     */
+    public List<WeatherStation> fuzzySearch(String query, int maxDistance, int limit) {
+        int[] matches = fuzzy.search(query, maxDistance, limit, stations.length);
+        List<WeatherStation> result = new ArrayList<>(matches.length);
+        for (int ordinal : matches) {
+            result.add(stations[ordinal]);
+        }
+        return result;
+    }
+
+    /**
+     * Devuelve hasta {@code limit} estaciones que cumplen la consulta a partir del cursor dado.
+     */
+    public Page page(StationQuery query, String cursor, int limit) {
+        int from = decodeCursor(cursor);
+        List<WeatherStation> items = new ArrayList<>(Math.min(limit, 64));
+
+        int[] driver = driverPostings(query);
+        if (driver == null) {
+            // Sin filtros: rango directo por ordinal, saltando los huecos
+            int i = from;
+            for (; i < stations.length && items.size() < limit; i++) {
+                if (stations[i] != null) {
+                    items.add(stations[i]);
+                }
+            }
+            while (i < stations.length && stations[i] == null) {
+                i++;
+            }
+            return new Page(items, i < stations.length ? encodeCursor(i) : null);
+        }
+
+        // Recorrido de los ordinales del filtro más selectivo, empezando en el cursor
+        int pos = Arrays.binarySearch(driver, from);
+        pos = pos >= 0 ? pos : -pos - 1;
+        for (; pos < driver.length && items.size() < limit; pos++) {
+            if (query.matches(stations[driver[pos]])) {
+                items.add(stations[driver[pos]]);
+            }
+        }
+        // El cursor apunta a la siguiente coincidencia: si no queda ninguna no hay página siguiente
+        for (; pos < driver.length; pos++) {
+            if (query.matches(stations[driver[pos]])) {
+                return new Page(items, encodeCursor(driver[pos]));
+            }
+        }
+        return new Page(items, null);
+    }
+
+    private int[] driverPostings(StationQuery query) {
+        int[] best = null;
+        for (int[] candidate : Arrays.asList(
+                containsPostings("city", byCity, query.city()),
+                containsPostings("country", byCountry, query.country()),
+                exactPostings(byStatus, query.status()),
+                exactPostings(byType, query.type()))) {
+            if (candidate != null && (best == null || candidate.length < best.length)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Ordinales, ordenados, de los grupos cuya clave contiene {@code value}. Se calculan una
+     * vez por instantánea y texto; las páginas siguientes solo buscan el cursor en ellos.
+     */
+    private int[] containsPostings(String attribute, Map<String, int[]> index, String value) {
+        if (value == null) {
+            return null;
+        }
+        String needle = value.toLowerCase();
+        String key = attribute + ':' + needle;
+        int[] postings = containsPostings.get(key);
+        if (postings == null) {
+            // Cada estación está en un único grupo del atributo: basta concatenar y ordenar
+            postings = index.entrySet().stream()
+                .filter(entry -> entry.getKey().contains(needle))
+                .flatMapToInt(entry -> Arrays.stream(entry.getValue()))
+                .sorted()
+                .toArray();
+            if (containsPostings.size() < MAX_CACHED_FILTERS) {
+                containsPostings.putIfAbsent(key, postings);
+            }
+        }
+        return postings;
+    }
+
+    private static int[] exactPostings(Map<String, int[]> index, String value) {
+        if (value == null) {
+            return null;
+        }
+        int[] ordinals = index.get(value.toLowerCase());
+        return ordinals == null ? new int[0] : ordinals;
+    }
+
+    public static String encodeCursor(int ordinal) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((CURSOR_PREFIX + ordinal).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            int ordinal = Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+            if (ordinal < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return ordinal;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Filtros de búsqueda: ciudad y país por contenido, estado y tipo por igualdad (sin mayúsculas).
+     * Los valores vacíos se tratan como ausentes.
+     */
+    public record StationQuery(String city, String country, String status, String type) {
+
+        public static final StationQuery ALL = new StationQuery(null, null, null, null);
+
+        public StationQuery {
+            city = blankToNull(city);
+            country = blankToNull(country);
+            status = blankToNull(status);
+            type = blankToNull(type);
+        }
+
+        public static StationQuery byCity(String city) {
+            return new StationQuery(city, null, null, null);
+        }
+
+        public static StationQuery byCountry(String country) {
+            return new StationQuery(null, country, null, null);
+        }
+
+        boolean matches(WeatherStation s) {
+            return (city == null || s.getCity().toLowerCase().contains(city.toLowerCase()))
+                && (country == null || s.getCountry().toLowerCase().contains(country.toLowerCase()))
+                && (status == null || s.getStatus().equalsIgnoreCase(status))
+                && (type == null || s.getStationType().equalsIgnoreCase(type));
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.trim().isEmpty() ? null : value;
+        }
+    }
+
+    public record Page(List<WeatherStation> items, String nextCursor) {}
+}
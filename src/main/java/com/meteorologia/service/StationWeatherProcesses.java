@@ -0,0 +1,134 @@
+package com.meteorologia.service;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Anomalías persistentes por estación para temperatura, presión y viento.
+ *
+ * Cada anomalía es ruido de valor en el tiempo: valores gaussianos en nodos
+ * separados por el tiempo de decorrelación de la variable, obtenidos por hash
+ * de la semilla del campo, el id de la estación y el índice del nodo, e
+ * interpolados suavemente entre nodos conservando la varianza. El resultado es
+ * una función pura de (semilla, estación, tick): todas las réplicas devuelven
+ * lo mismo sin compartir estado y no hay nada que dimensionar al cambiar el catálogo.
+ */
+@ApplicationScoped
+public class StationWeatherProcesses {
+
+    @Inject
+    WeatherField weatherField;
+
+    // Tiempo de decorrelación de cada variable
+    @ConfigProperty(name = "meteorologia.process.temperature-tau-hours", defaultValue = "6")
+    double temperatureTauHours;
+
+    @ConfigProperty(name = "meteorologia.process.pressure-tau-hours", defaultValue = "12")
+    double pressureTauHours;
+
+    @ConfigProperty(name = "meteorologia.process.wind-tau-hours", defaultValue = "2")
+    double windTauHours;
+
+    // Desviación típica estacionaria de cada anomalía
+    private static final double TEMPERATURE_SIGMA = 1.5;
+    private static final double PRESSURE_SIGMA = 3.0;
+    private static final double WIND_SIGMA = 4.0;
+
+    // Canales de hash, distintos de los del campo
+    private static final int CH_TEMPERATURE = 101;
+    private static final int CH_PRESSURE = 102;
+    private static final int CH_WIND = 103;
+
+    /**
+     * Anomalías de la estación en el tick actual.
+     */
+    public Anomaly current(String stationId) {
+        return at(stationId, weatherField.currentTick());
+    }
+
+    /**
+     * Como {@link #current(String)} con la clave de la estación ya calculada
+     * (p. ej. mezclada con la semilla de un inquilino).
+     */
+    public Anomaly current(long stationKey) {
+        return at(stationKey, weatherField.currentTick());
+    }
+
+    /**
+     * Anomalías de la estación en un tick cualquiera.
+     */
+    public Anomaly at(String stationId, long tick) {
+        return at(stationKey(stationId), tick);
+    }
+
+    public Anomaly at(long station, long tick) {
+        double hours = (double) tick * weatherField.tickSeconds() / 3600.0;
+        return new Anomaly(
+            TEMPERATURE_SIGMA * smoothGaussian(CH_TEMPERATURE, station, hours / temperatureTauHours),
+            PRESSURE_SIGMA * smoothGaussian(CH_PRESSURE, station, hours / pressureTauHours),
+            WIND_SIGMA * smoothGaussian(CH_WIND, station, hours / windTauHours));
+    }
+
+    /**
+     * Anomalías esperadas {@code leadTicks} ticks después del actual: la anomalía
+     * actual amortiguada con el tiempo de decorrelación de cada variable.
+     */
+    public Anomaly expected(String stationId, long leadTicks) {
+        return expected(current(stationId), leadTicks);
+    }
+
+    public Anomaly expected(long stationKey, long leadTicks) {
+        return expected(current(stationKey), leadTicks);
+    }
+
+    /**
+     * Como {@link #expected(String, long)} partiendo de una anomalía actual ya
+     * calculada, para series que la comparten entre muchos instantes.
+     */
+    public Anomaly expected(Anomaly now, long leadTicks) {
+        long k = Math.max(0, leadTicks);
+        return new Anomaly(
+            now.temperature() * Math.pow(phi(temperatureTauHours), k),
+            now.pressure() * Math.pow(phi(pressureTauHours), k),
+            now.wind() * Math.pow(phi(windTauHours), k));
+    }
+
+    // Gaussiana estándar en el instante t (en tiempos de decorrelación), continua en t
+    private double smoothGaussian(int channel, long station, double t) {
+        long node = (long) Math.floor(t);
+        double f = fade(t - node);
+        double w0 = 1 - f;
+        double w1 = f;
+        // Normalizar por la norma de los pesos mantiene varianza 1 entre nodos
+        return (w0 * gaussian(channel, station, node) + w1 * gaussian(channel, station, node + 1))
+            / Math.sqrt(w0 * w0 + w1 * w1);
+    }
+
+    private double gaussian(int channel, long station, long node) {
+        // Box-Muller sobre dos uniformes derivadas por hash
+        double u1 = ((weatherField.hash(channel, station, node, 0) >>> 11) + 1) * 0x1.0p-53;
+        double u2 = (weatherField.hash(channel, station, node, 1) >>> 11) * 0x1.0p-53;
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    static long stationKey(String stationId) {
+        // FNV-1a de 64 bits sobre el id: igual en todas las réplicas, sin depender del ordinal
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < stationId.length(); i++) {
+            h = (h ^ stationId.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static double fade(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private double phi(double tauHours) {
+        return Math.exp(-weatherField.tickSeconds() / (tauHours * 3600.0));
+    }
+
+    public record Anomaly(double temperature, double pressure, double wind) {}
+}
@@ -0,0 +1,99 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.WeatherStation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Catálogos sintéticos de estaciones, deterministas para una semilla dada.
+ *
+ * Cada catálogo elige ciudades de una tabla fija con un barajado de la
+ * semilla y desplaza ligeramente coordenadas y altitud, así que dos
+ * inquilinos tienen redes distintas pero la misma semilla da siempre el mismo
+ * catálogo en todas las réplicas. Los ids siguen el formato habitual
+ * (STATION_001, ...) para que los clientes no tengan que cambiar.
+ */
+final class SyntheticCatalogs {
+
+    private record City(String name, String region, double latitude, double longitude, int altitude) {}
+
+    private static final List<City> CITIES = List.of(
+        new City("Madrid", "Comunidad de Madrid", 40.4168, -3.7038, 650),
+        new City("Barcelona", "Cataluña", 41.3851, 2.1734, 12),
+        new City("Valencia", "Comunidad Valenciana", 39.4699, -0.3763, 11),
+        new City("Sevilla", "Andalucía", 37.3891, -5.9845, 7),
+        new City("Zaragoza", "Aragón", 41.6488, -0.8891, 199),
+        new City("Málaga", "Andalucía", 36.7213, -4.4214, 11),
+        new City("Murcia", "Región de Murcia", 37.9922, -1.1307, 43),
+        new City("Palma", "Islas Baleares", 39.5696, 2.6502, 13),
+        new City("Bilbao", "País Vasco", 43.2630, -2.9349, 19),
+        new City("Valladolid", "Castilla y León", 41.6523, -4.7245, 698),
+        new City("Vigo", "Galicia", 42.2406, -8.7207, 31),
+        new City("Gijón", "Asturias", 43.5322, -5.6611, 3),
+        new City("A Coruña", "Galicia", 43.3623, -8.4115, 21),
+        new City("Granada", "Andalucía", 37.1773, -3.5986, 738),
+        new City("Vitoria-Gasteiz", "País Vasco", 42.8467, -2.6716, 525),
+        new City("Alicante", "Comunidad Valenciana", 38.3452, -0.4810, 5),
+        new City("Córdoba", "Andalucía", 37.8882, -4.7794, 106),
+        new City("Pamplona", "Navarra", 42.8125, -1.6458, 449),
+        new City("Santander", "Cantabria", 43.4623, -3.8100, 15),
+        new City("Salamanca", "Castilla y León", 40.9701, -5.6635, 802),
+        new City("Logroño", "La Rioja", 42.4627, -2.4450, 384),
+        new City("Badajoz", "Extremadura", 38.8794, -6.9707, 186),
+        new City("Toledo", "Castilla-La Mancha", 39.8628, -4.0273, 529),
+        new City("Huesca", "Aragón", 42.1401, -0.4089, 488),
+        new City("León", "Castilla y León", 42.5987, -5.5671, 838),
+        new City("Burgos", "Castilla y León", 42.3439, -3.6969, 856),
+        new City("Cáceres", "Extremadura", 39.4753, -6.3724, 459),
+        new City("Almería", "Andalucía", 36.8340, -2.4637, 16),
+        new City("Teruel", "Aragón", 40.3457, -1.1065, 915),
+        new City("Soria", "Castilla y León", 41.7666, -2.4790, 1063)
+    );
+
+    private static final List<String> TYPES = Arrays.asList("AUTOMATICA", "MANUAL", "MIXTA");
+    private static final List<String> SITES = Arrays.asList("Centro", "Aeropuerto", "Norte", "Sur", "Universidad", "Puerto");
+
+    private SyntheticCatalogs() {
+    }
+
+    /**
+     * Número máximo de estaciones de un catálogo sintético (una por ciudad de la tabla).
+     */
+    static int maxStations() {
+        return CITIES.size();
+    }
+
+    static List<WeatherStation> generate(long seed, int count) {
+        Random random = new Random(seed);
+        List<City> cities = new ArrayList<>(CITIES);
+        Collections.shuffle(cities, random);
+        int n = Math.max(1, Math.min(count, cities.size()));
+        LocalDateTime now = LocalDateTime.now();
+        List<WeatherStation> stations = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            City city = cities.get(i);
+            String site = SITES.get(random.nextInt(SITES.size()));
+            String type = TYPES.get(random.nextInt(TYPES.size()));
+            // Nueve de cada diez activas; el resto en mantenimiento
+            String status = random.nextInt(10) == 0 ? "MANTENIMIENTO" : "ACTIVA";
+            stations.add(new WeatherStation(
+                String.format("STATION_%03d", i + 1),
+                "Estación " + city.name() + " " + site,
+                city.name(), "España", city.region(),
+                Math.round((city.latitude() + (random.nextDouble() - 0.5) * 0.1) * 10000.0) / 10000.0,
+                Math.round((city.longitude() + (random.nextDouble() - 0.5) * 0.1) * 10000.0) / 10000.0,
+                Math.max(0, city.altitude() + random.nextInt(41) - 20),
+                "Europe/Madrid", type, status,
+                now.minusDays(365 + random.nextInt(3650)).withNano(0),
+                now.minusDays(random.nextInt(180)).withNano(0),
+                "AEMET", "contacto@aemet.es",
+                "Estación sintética " + site.toLowerCase() + " de " + city.name()));
+        }
+        return stations;
+    }
+}
@@ -0,0 +1,84 @@
+package com.meteorologia.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Datos aislados de un inquilino: catálogo con sus índices, caché de
+ * coordenadas, semilla de generación y las cachés derivadas de otros servicios.
+ *
+ * Nada se comparte entre inquilinos salvo el campo meteorológico de fondo; la
+ * semilla se mezcla con el id de cada estación para que sus anomalías propias
+ * sean distintas en cada inquilino aunque los ids coincidan.
+ */
+public final class Tenant {
+
+    // Estimaciones para el presupuesto de memoria: estación con sus índices y
+    // tablas solares, y celda de la caché de coordenadas con su lectura
+    private static final long BYTES_PER_STATION = 4096;
+    private static final long BYTES_PER_CELL = 768;
+
+    // El acceso solo se anota si ha pasado al menos este tiempo, para no escribir en cada petición
+    private static final long TOUCH_GRANULARITY_MILLIS = 1000;
+
+    private final String id;
+    private final long seed;
+    private final StationCatalog catalog;
+    private final LocationCache locationCache;
+    private final Map<Class<?>, AtomicReference<?>> slots = new ConcurrentHashMap<>();
+    private volatile long lastAccess;
+
+    Tenant(String id, long seed, StationCatalog catalog, LocationCache locationCache) {
+        this.id = id;
+        this.seed = seed;
+        this.catalog = catalog;
+        this.locationCache = locationCache;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    StationCatalog catalog() {
+        return catalog;
+    }
+
+    LocationCache locationCache() {
+        return locationCache;
+    }
+
+    /**
+     * Clave de las anomalías propias de una estación de este inquilino.
+     */
+    long stationKey(String stationId) {
+        return StationWeatherProcesses.stationKey(stationId) ^ seed;
+    }
+
+    /**
+     * Hueco para la caché derivada que mantiene {@code owner} para este inquilino.
+     */
+    @SuppressWarnings("unchecked")
+    <T> AtomicReference<T> slot(Class<?> owner) {
+        return (AtomicReference<T>) slots.computeIfAbsent(owner, o -> new AtomicReference<>());
+    }
+
+    void touch(long now) {
+        if (now - lastAccess >= TOUCH_GRANULARITY_MILLIS) {
+            lastAccess = now;
+        }
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    long estimatedBytes() {
+        return catalog.snapshot().capacity() * BYTES_PER_STATION + locationCache.size() * BYTES_PER_CELL;
+    }
+}
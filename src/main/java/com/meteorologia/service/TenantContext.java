@@ -0,0 +1,30 @@
+package com.meteorologia.service;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Inquilino de la petición en curso. El filtro fija el id y el servicio
+ * resuelve el inquilino una sola vez por petición.
+ */
+@RequestScoped
+public class TenantContext {
+
+    private String tenantId;
+    private Tenant tenant;
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Tenant getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(Tenant tenant) {
+        this.tenant = tenant;
+    }
+}
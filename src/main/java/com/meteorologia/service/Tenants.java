@@ -0,0 +1,111 @@
+package com.meteorologia.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Inquilinos cargados, resueltos por id con una consulta al mapa.
+ *
+ * Un inquilino se construye la primera vez que se pide; solo llegan aquí los
+ * ids de la lista configurada, que filtra {@code TenantFilter}. Tras cada carga,
+ * si la memoria estimada de todos supera el presupuesto, se desalojan los que
+ * llevan más tiempo sin usarse. Nunca se desalojan el inquilino por defecto, el
+ * recién cargado ni los que tienen cambios en su catálogo: uno desalojado se
+ * vuelve a construir desde su semilla, y esos cambios se perderían.
+ */
+final class Tenants {
+
+    static final String DEFAULT_ID = "default";
+
+    private final Tenant defaultTenant;
+    private final Function<String, Tenant> loader;
+    private final long budgetBytes;
+    private final Map<String, Tenant> loaded = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter evictions;
+
+    Tenants(Tenant defaultTenant, Function<String, Tenant> loader, long budgetBytes, MeterRegistry registry) {
+        this.defaultTenant = defaultTenant;
+        this.loader = loader;
+        this.budgetBytes = budgetBytes;
+        loads = Counter.builder("meteorologia.tenants.loads")
+            .description("Inquilinos construidos bajo demanda")
+            .register(registry);
+        evictions = Counter.builder("meteorologia.tenants.evictions")
+            .description("Inquilinos desalojados por el presupuesto de memoria")
+            .register(registry);
+        Gauge.builder("meteorologia.tenants.loaded", loaded, Map::size)
+            .description("Inquilinos cargados, sin contar el de por defecto")
+            .register(registry);
+        Gauge.builder("meteorologia.tenants.estimated_bytes", this, Tenants::estimatedBytes)
+            .description("Memoria estimada de los datos de todos los inquilinos")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    /**
+     * Inquilino con ese id, construyéndolo si no está cargado. {@code null} es el de por defecto.
+     */
+    Tenant get(String id) {
+        Tenant tenant;
+        if (id == null || DEFAULT_ID.equals(id)) {
+            tenant = defaultTenant;
+        } else {
+            tenant = loaded.get(id);
+            if (tenant == null) {
+                tenant = load(id);
+            }
+        }
+        tenant.touch(System.currentTimeMillis());
+        return tenant;
+    }
+
+    private Tenant load(String id) {
+        boolean[] created = new boolean[1];
+        Tenant tenant = loaded.computeIfAbsent(id, key -> {
+            created[0] = true;
+            return loader.apply(key);
+        });
+        if (created[0]) {
+            loads.increment();
+            evictOverBudget(tenant);
+        }
+        return tenant;
+    }
+
+    private synchronized void evictOverBudget(Tenant keep) {
+        long total = (long) estimatedBytes();
+        if (total <= budgetBytes) {
+            return;
+        }
+        List<Tenant> idle = loaded.values().stream()
+            .filter(tenant -> tenant != keep && !tenant.catalog().isModified())
+            .sorted(Comparator.comparingLong(Tenant::lastAccess))
+            .toList();
+        for (Tenant tenant : idle) {
+            if (total <= budgetBytes) {
+                break;
+            }
+            long bytes = tenant.estimatedBytes();
+            if (loaded.remove(tenant.getId(), tenant)) {
+                total -= bytes;
+                evictions.increment();
+            }
+        }
+    }
+
+    private double estimatedBytes() {
+        long total = defaultTenant.estimatedBytes();
+        for (Tenant tenant : loaded.values()) {
+            total += tenant.estimatedBytes();
+        }
+        return total;
+    }
+}
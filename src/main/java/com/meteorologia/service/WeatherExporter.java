@@ -0,0 +1,307 @@
+package com.meteorologia.service;
+
+import com.meteorologia.model.WeatherData;
+import com.meteorologia.model.WeatherStation;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Volcado de la lectura actual de todas las estaciones, en CSV o en formato columnar.
+ *
+ * Las estaciones de una misma instantánea del catálogo se procesan en trozos de
+ * {@link #CHUNK_ROWS} filas: cada trozo rellena buffers primitivos por columna,
+ * que se reutilizan en el siguiente, y se escribe antes de pasar al siguiente.
+ * La memoria usada no depende del tamaño del catálogo.
+ *
+ * Formato columnar (little-endian, inspirado en Arrow IPC pero sin metadatos flatbuffers):
+ * <pre>
+ * "MCOL" u8 versión
+ * i32 nColumnas, por columna: u8 tipo (0 = utf8, 1 = int32, 2 = float64), i16 longitud, nombre utf8
+ * trozos: i32 nFilas (&gt; 0) y, por columna en orden,
+ *         int32/float64: nFilas valores; utf8: i32[nFilas + 1] desplazamientos y los bytes
+ * fin: i32 0
+ * </pre>
+ * Los números ausentes se escriben como NaN (float64) y las cadenas ausentes como vacías.
+ */
+@ApplicationScoped
+public class WeatherExporter {
+
+    public static final String COLUMNAR_MEDIA_TYPE = "application/vnd.meteorologia.columnar";
+
+    static final int CHUNK_ROWS = 1024;
+
+    private static final byte[] MAGIC = {'M', 'C', 'O', 'L'};
+    private static final byte VERSION = 1;
+
+    public enum Format { CSV, COLUMNAR }
+
+    @Inject
+    WeatherService weatherService;
+
+    private static final List<ColumnSpec> COLUMNS = List.of(
+        ColumnSpec.text("station_id", r -> r.station().getId()),
+        ColumnSpec.text("name", r -> r.station().getName()),
+        ColumnSpec.text("city", r -> r.station().getCity()),
+        ColumnSpec.text("country", r -> r.station().getCountry()),
+        ColumnSpec.text("region", r -> r.station().getRegion()),
+        ColumnSpec.text("station_type", r -> r.station().getStationType()),
+        ColumnSpec.text("status", r -> r.station().getStatus()),
+        ColumnSpec.float64("latitude", r -> r.station().getLatitude()),
+        ColumnSpec.float64("longitude", r -> r.station().getLongitude()),
+        ColumnSpec.float64("altitude", r -> r.station().getAltitude() == null ? Double.NaN : r.station().getAltitude()),
+        ColumnSpec.float64("temperature", r -> r.data().getTemperature()),
+        ColumnSpec.float64("feels_like", r -> r.data().getFeelsLike()),
+        ColumnSpec.int32("humidity", r -> r.data().getHumidity()),
+        ColumnSpec.float64("pressure", r -> r.data().getPressure()),
+        ColumnSpec.float64("wind_speed", r -> r.data().getWindSpeed()),
+        ColumnSpec.int32("wind_direction", r -> r.data().getWindDirection()),
+        ColumnSpec.float64("visibility", r -> r.data().getVisibility()),
+        ColumnSpec.int32("uv_index", r -> r.data().getUvIndex()),
+        ColumnSpec.float64("precipitation_24h", r -> r.data().getPrecipitation24h()),
+        ColumnSpec.text("weather_description", r -> r.data().getWeatherDescription()),
+        ColumnSpec.text("measurement_time", r -> String.valueOf(r.data().getMeasurementTime()))
+    );
+
+    /**
+     * Escribe la lectura actual de todas las estaciones en {@code out}.
+     */
+    public void export(OutputStream out, Format format) throws IOException {
+        StationRegistry registry = weatherService.getStationSnapshot();
+        List<WeatherStation> stations = registry.all();
+        Chunk chunk = new Chunk();
+        ChunkWriter writer = format == Format.CSV ? new CsvWriter(out) : new ColumnarWriter(out);
+
+        writer.begin();
+        for (int from = 0; from < stations.size(); from += CHUNK_ROWS) {
+            int rows = Math.min(CHUNK_ROWS, stations.size() - from);
+            for (int row = 0; row < rows; row++) {
+                WeatherStation station = stations.get(from + row);
+                chunk.set(row, new Reading(station, weatherService.getCurrentWeather(registry, station)));
+            }
+            chunk.rows = rows;
+            writer.write(chunk);
+        }
+        writer.end();
+    }
+
+    private record Reading(WeatherStation station, WeatherData data) {}
+
+    private enum Type { UTF8, INT32, FLOAT64 }
+
+    private record ColumnSpec(String name, Type type, Function<Reading, String> text,
+                              ToIntFunction<Reading> int32, ToDoubleFunction<Reading> float64) {
+
+        static ColumnSpec text(String name, Function<Reading, String> value) {
+            return new ColumnSpec(name, Type.UTF8, value, null, null);
+        }
+
+        static ColumnSpec int32(String name, ToIntFunction<Reading> value) {
+            return new ColumnSpec(name, Type.INT32, null, value, null);
+        }
+
+        static ColumnSpec float64(String name, ToDoubleFunction<Reading> value) {
+            return new ColumnSpec(name, Type.FLOAT64, null, null, value);
+        }
+    }
+
+    /**
+     * Buffers por columna de un trozo; se reutilizan de un trozo al siguiente.
+     */
+    private static final class Chunk {
+
+        final String[][] texts = new String[COLUMNS.size()][];
+        final int[][] ints = new int[COLUMNS.size()][];
+        final double[][] doubles = new double[COLUMNS.size()][];
+        int rows;
+
+        Chunk() {
+            for (int c = 0; c < COLUMNS.size(); c++) {
+                switch (COLUMNS.get(c).type()) {
+                    case UTF8 -> texts[c] = new String[CHUNK_ROWS];
+                    case INT32 -> ints[c] = new int[CHUNK_ROWS];
+                    case FLOAT64 -> doubles[c] = new double[CHUNK_ROWS];
+                }
+            }
+        }
+
+        void set(int row, Reading reading) {
+            for (int c = 0; c < COLUMNS.size(); c++) {
+                ColumnSpec column = COLUMNS.get(c);
+                switch (column.type()) {
+                    case UTF8 -> texts[c][row] = column.text().apply(reading);
+                    case INT32 -> ints[c][row] = column.int32().applyAsInt(reading);
+                    case FLOAT64 -> doubles[c][row] = column.float64().applyAsDouble(reading);
+                }
+            }
+        }
+    }
+
+    private interface ChunkWriter {
+        void begin() throws IOException;
+        void write(Chunk chunk) throws IOException;
+        void end() throws IOException;
+    }
+
+    private static final class CsvWriter implements ChunkWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int c = 0; c < COLUMNS.size(); c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                writer.write(COLUMNS.get(c).name());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Chunk chunk) throws IOException {
+            for (int row = 0; row < chunk.rows; row++) {
+                for (int c = 0; c < COLUMNS.size(); c++) {
+                    if (c > 0) {
+                        writer.write(',');
+                    }
+                    switch (COLUMNS.get(c).type()) {
+                        case UTF8 -> writeText(chunk.texts[c][row]);
+                        case INT32 -> writer.write(Integer.toString(chunk.ints[c][row]));
+                        case FLOAT64 -> {
+                            double value = chunk.doubles[c][row];
+                            if (!Double.isNaN(value)) {
+                                writer.write(Double.toString(value));
+                            }
+                        }
+                    }
+                }
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class ColumnarWriter implements ChunkWriter {
+
+        private final OutputStream out;
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        private final byte[][] encoded = new byte[CHUNK_ROWS][];
+
+        ColumnarWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            buffer.clear();
+            buffer.put(MAGIC).put(VERSION).putInt(COLUMNS.size());
+            for (ColumnSpec column : COLUMNS) {
+                byte[] name = column.name().getBytes(StandardCharsets.UTF_8);
+                buffer.put((byte) column.type().ordinal()).putShort((short) name.length).put(name);
+            }
+            flush();
+        }
+
+        @Override
+        public void write(Chunk chunk) throws IOException {
+            int rows = chunk.rows;
+            ensure(Integer.BYTES);
+            buffer.putInt(rows);
+            for (int c = 0; c < COLUMNS.size(); c++) {
+                switch (COLUMNS.get(c).type()) {
+                    case INT32 -> {
+                        ensure(rows * Integer.BYTES);
+                        buffer.asIntBuffer().put(chunk.ints[c], 0, rows);
+                        buffer.position(buffer.position() + rows * Integer.BYTES);
+                    }
+                    case FLOAT64 -> {
+                        ensure(rows * Double.BYTES);
+                        buffer.asDoubleBuffer().put(chunk.doubles[c], 0, rows);
+                        buffer.position(buffer.position() + rows * Double.BYTES);
+                    }
+                    case UTF8 -> writeText(chunk.texts[c], rows);
+                }
+            }
+            flush();
+        }
+
+        private void writeText(String[] values, int rows) throws IOException {
+            int total = 0;
+            for (int row = 0; row < rows; row++) {
+                encoded[row] = values[row] == null ? new byte[0] : values[row].getBytes(StandardCharsets.UTF_8);
+                total += encoded[row].length;
+            }
+            ensure((rows + 1) * Integer.BYTES);
+            int offset = 0;
+            buffer.putInt(offset);
+            for (int row = 0; row < rows; row++) {
+                offset += encoded[row].length;
+                buffer.putInt(offset);
+            }
+            ensure(total);
+            for (int row = 0; row < rows; row++) {
+                buffer.put(encoded[row]);
+            }
+            Arrays.fill(encoded, 0, rows, null);
+        }
+
+        @Override
+        public void end() throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(0);
+            flush();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            flush();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        private void flush() throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+            out.flush();
+            buffer.clear();
+        }
+    }
+}
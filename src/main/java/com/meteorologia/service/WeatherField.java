@@ -0,0 +1,289 @@
+package com.meteorologia.service;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Campo meteorológico en rejilla, espacialmente coherente.
+ *
+ * Cada tick se calcula una vez, para la caja que cubre las estaciones, un
+ * conjunto de rejillas de ruido suave guardadas en arrays primitivos. Las
+ * consultas por coordenadas interpolan bilinealmente sobre esa rejilla, de
+ * modo que dos puntos cercanos devuelven valores cercanos. Fuera de la caja
+ * se evalúa directamente la misma función de ruido.
+ *
+ * Los valores son una función pura de la semilla, la posición y el tick: los
+ * nodos de la rejilla están alineados a múltiplos del paso, así que réplicas con
+ * la misma semilla devuelven lo mismo sin coordinarse.
+ *
+ * La temperatura parte de la {@link Climatology} del día y la hora solar de
+ * cada punto; el ruido añade las anomalías sobre ella.
+ */
+@ApplicationScoped
+public class WeatherField {
+
+    // Canales de ruido independientes
+    private static final int CH_TEMPERATURE = 1;
+    private static final int CH_HUMIDITY = 2;
+    private static final int CH_PRESSURE = 3;
+    private static final int CH_WIND_U = 4;
+    private static final int CH_WIND_V = 5;
+    private static final int CH_CLOUD = 6;
+
+    private static final int MAX_CELLS = 250_000;
+
+    @ConfigProperty(name = "meteorologia.field.tick-seconds", defaultValue = "60")
+    long tickSeconds;
+
+    @ConfigProperty(name = "meteorologia.field.resolution", defaultValue = "0.05")
+    double resolution;
+
+    @ConfigProperty(name = "meteorologia.field.margin", defaultValue = "2.0")
+    double margin;
+
+    @ConfigProperty(name = "meteorologia.field.spatial-scale", defaultValue = "1.5")
+    double spatialScale;
+
+    @ConfigProperty(name = "meteorologia.field.temporal-scale-seconds", defaultValue = "172800")
+    long temporalScaleSeconds;
+
+    // Común a todas las réplicas del clúster
+    @ConfigProperty(name = "meteorologia.field.seed", defaultValue = "20250522")
+    long seed;
+
+    private double minLat = -10, maxLat = 10, minLon = -10, maxLon = 10;
+    private volatile Grid grid;
+
+    /**
+     * Ajusta la caja que cubre la rejilla. La siguiente consulta recalcula el campo.
+     */
+    public synchronized void cover(double minLat, double maxLat, double minLon, double maxLon) {
+        if (!Double.isFinite(minLat) || !Double.isFinite(maxLat) || !Double.isFinite(minLon) || !Double.isFinite(maxLon)) {
+            throw new IllegalArgumentException("La caja de la rejilla debe tener coordenadas finitas");
+        }
+        this.minLat = Math.max(-90, minLat - margin);
+        this.maxLat = Math.min(90, maxLat + margin);
+        this.minLon = Math.max(-180, minLon - margin);
+        this.maxLon = Math.min(180, maxLon + margin);
+        this.grid = null;
+    }
+
+    public long currentTick() {
+        return tickAt(System.currentTimeMillis());
+    }
+
+    public Sample sample(double lat, double lon) {
+        Grid g = gridFor(currentTick());
+        if (lat < g.minLat || lat > g.maxLat || lon < g.minLon || lon > g.maxLon) {
+            return g.point(lat, lon);
+        }
+        return g.interpolate(lat, lon);
+    }
+
+    /**
+     * Evalúa el campo en un tick arbitrario (p. ej. futuro) sin pasar por la rejilla.
+     */
+    public Sample sampleAt(double lat, double lon, long tick) {
+        return point(lat, lon, tick);
+    }
+
+    public long tickAt(long epochMillis) {
+        return epochMillis / (tickSeconds * 1000);
+    }
+
+    public long tickSeconds() {
+        return tickSeconds;
+    }
+
+    /**
+     * Instante de inicio del tick, en milisegundos desde la época.
+     */
+    public long tickStartMillis(long tick) {
+        return tick * tickSeconds * 1000;
+    }
+
+    /**
+     * Hash determinista de la semilla y unas coordenadas enteras, para derivar
+     * otros valores pseudoaleatorios reproducibles entre réplicas.
+     */
+    long hash(int channel, long x, long y, long t) {
+        long h = seed ^ (channel * 0x9E3779B97F4A7C15L);
+        h = mix(h + x * 0xC2B2AE3D27D4EB4FL);
+        h = mix(h + y * 0x165667B19E3779F9L);
+        return mix(h + t * 0x27D4EB2F165667C5L);
+    }
+
+    private Grid gridFor(long tick) {
+        Grid g = grid;
+        if (g != null && g.tick == tick) {
+            return g;
+        }
+        synchronized (this) {
+            g = grid;
+            if (g == null || g.tick != tick) {
+                g = new Grid(tick, minLat, maxLat, minLon, maxLon);
+                grid = g;
+            }
+            return g;
+        }
+    }
+
+    private final class Grid {
+        final long tick;
+        final double minLat, maxLat, minLon, maxLon;
+        final double step;
+        final int rows, cols;
+        final double time;
+        final float[] temperature, humidity, pressure, windU, windV, cloud;
+
+        Grid(long tick, double minLat, double maxLat, double minLon, double maxLon) {
+            this.tick = tick;
+            // Si la caja es muy grande se engrosa la resolución (en potencias de dos) para acotar la memoria
+            double cells = ((maxLat - minLat) / resolution + 1) * ((maxLon - minLon) / resolution + 1);
+            this.step = cells > MAX_CELLS
+                ? resolution * Math.pow(2, Math.ceil(Math.log(cells / MAX_CELLS) / Math.log(4)))
+                : resolution;
+            // Nodos en múltiplos del paso: el valor en un punto no depende de la caja cubierta
+            long firstRow = (long) Math.floor(minLat / step);
+            long firstCol = (long) Math.floor(minLon / step);
+            this.minLat = firstRow * step;
+            this.maxLat = maxLat;
+            this.minLon = firstCol * step;
+            this.maxLon = maxLon;
+            // Al menos dos nodos por eje para que la interpolación tenga una celda completa
+            this.rows = Math.max(2, (int) Math.ceil((maxLat - this.minLat) / step) + 1);
+            this.cols = Math.max(2, (int) Math.ceil((maxLon - this.minLon) / step) + 1);
+            this.time = timeOf(tick);
+
+            int n = rows * cols;
+            temperature = new float[n];
+            humidity = new float[n];
+            pressure = new float[n];
+            windU = new float[n];
+            windV = new float[n];
+            cloud = new float[n];
+
+            // El día del año es común a toda la rejilla y la hora solar solo depende de la columna
+            long millis = tickStartMillis(tick);
+            int day = Climatology.dayIndex(millis);
+            double[] solarHour = new double[cols];
+            for (int c = 0; c < cols; c++) {
+                solarHour[c] = Climatology.solarHour(millis, (firstCol + c) * step);
+            }
+
+            for (int r = 0; r < rows; r++) {
+                double lat = (firstRow + r) * step;
+                for (int c = 0; c < cols; c++) {
+                    double lon = (firstCol + c) * step;
+                    int i = r * cols + c;
+                    temperature[i] = (float) (Climatology.temperature(lat, day, solarHour[c])
+                        + 6 * noise(CH_TEMPERATURE, lat, lon, time));
+                    humidity[i] = (float) (65 + 30 * noise(CH_HUMIDITY, lat, lon, time));
+                    pressure[i] = (float) (1013 + 25 * noise(CH_PRESSURE, lat, lon, time));
+                    windU[i] = (float) (18 * noise(CH_WIND_U, lat, lon, time));
+                    windV[i] = (float) (18 * noise(CH_WIND_V, lat, lon, time));
+                    cloud[i] = (float) (0.5 + 0.6 * noise(CH_CLOUD, lat, lon, time));
+                }
+            }
+        }
+
+        Sample interpolate(double lat, double lon) {
+            double y = (lat - minLat) / step;
+            double x = (lon - minLon) / step;
+            int r0 = Math.max(0, Math.min((int) y, rows - 2));
+            int c0 = Math.max(0, Math.min((int) x, cols - 2));
+            double fy = y - r0;
+            double fx = x - c0;
+            int i00 = r0 * cols + c0;
+            int i01 = i00 + 1;
+            int i10 = i00 + cols;
+            int i11 = i10 + 1;
+            double w00 = (1 - fx) * (1 - fy), w01 = fx * (1 - fy), w10 = (1 - fx) * fy, w11 = fx * fy;
+            return Sample.of(
+                w00 * temperature[i00] + w01 * temperature[i01] + w10 * temperature[i10] + w11 * temperature[i11],
+                w00 * humidity[i00] + w01 * humidity[i01] + w10 * humidity[i10] + w11 * humidity[i11],
+                w00 * pressure[i00] + w01 * pressure[i01] + w10 * pressure[i10] + w11 * pressure[i11],
+                w00 * windU[i00] + w01 * windU[i01] + w10 * windU[i10] + w11 * windU[i11],
+                w00 * windV[i00] + w01 * windV[i01] + w10 * windV[i10] + w11 * windV[i11],
+                w00 * cloud[i00] + w01 * cloud[i01] + w10 * cloud[i10] + w11 * cloud[i11]);
+        }
+
+        Sample point(double lat, double lon) {
+            return WeatherField.this.point(lat, lon, tick);
+        }
+    }
+
+    private Sample point(double lat, double lon, long tick) {
+        double time = timeOf(tick);
+        return Sample.of(
+            Climatology.temperature(lat, lon, tickStartMillis(tick)) + 6 * noise(CH_TEMPERATURE, lat, lon, time),
+            65 + 30 * noise(CH_HUMIDITY, lat, lon, time),
+            1013 + 25 * noise(CH_PRESSURE, lat, lon, time),
+            18 * noise(CH_WIND_U, lat, lon, time),
+            18 * noise(CH_WIND_V, lat, lon, time),
+            0.5 + 0.6 * noise(CH_CLOUD, lat, lon, time));
+    }
+
+    // Tiempo del ruido, en escalas temporales del campo
+    private double timeOf(long tick) {
+        return (double) tick * tickSeconds / temporalScaleSeconds;
+    }
+
+    // Ruido de valor fractal (dos octavas) en [-1, 1] sobre (lat, lon, tiempo)
+    private double noise(int channel, double lat, double lon, double t) {
+        double x = lon / spatialScale;
+        double y = lat / spatialScale;
+        return 0.7 * valueNoise(channel, x, y, t) + 0.3 * valueNoise(channel + 64, x * 2.7, y * 2.7, t * 1.9);
+    }
+
+    private double valueNoise(int channel, double x, double y, double t) {
+        long x0 = (long) Math.floor(x), y0 = (long) Math.floor(y), t0 = (long) Math.floor(t);
+        double fx = fade(x - x0), fy = fade(y - y0), ft = fade(t - t0);
+        double a = lerp(fx, lattice(channel, x0, y0, t0), lattice(channel, x0 + 1, y0, t0));
+        double b = lerp(fx, lattice(channel, x0, y0 + 1, t0), lattice(channel, x0 + 1, y0 + 1, t0));
+        double c = lerp(fx, lattice(channel, x0, y0, t0 + 1), lattice(channel, x0 + 1, y0, t0 + 1));
+        double d = lerp(fx, lattice(channel, x0, y0 + 1, t0 + 1), lattice(channel, x0 + 1, y0 + 1, t0 + 1));
+        return lerp(ft, lerp(fy, a, b), lerp(fy, c, d));
+    }
+
+    private double lattice(int channel, long x, long y, long t) {
+        return (hash(channel, x, y, t) >>> 11) * 0x1.0p-52 - 1.0;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+    private static double lerp(double t, double a, double b) {
+        return a + t * (b - a);
+    }
+
+    /**
+     * Valores del campo en un punto. La dirección del viento se deriva de las
+     * componentes interpoladas para no promediar ángulos.
+     */
+    public record Sample(double temperature, double humidity, double pressure,
+                         double windSpeed, int windDirection, double cloudCover) {
+
+        static Sample of(double temperature, double humidity, double pressure,
+                         double windU, double windV, double cloud) {
+            double speed = Math.sqrt(windU * windU + windV * windV);
+            // Dirección meteorológica: de dónde sopla el viento
+            int direction = (int) Math.round(Math.toDegrees(Math.atan2(-windU, -windV)));
+            direction = Math.floorMod(direction, 360);
+            return new Sample(temperature, clamp(humidity, 5, 100), pressure,
+                speed, direction, clamp(cloud, 0, 1));
+        }
+
+        private static double clamp(double v, double min, double max) {
+            return Math.max(min, Math.min(max, v));
+        }
+    }
+}
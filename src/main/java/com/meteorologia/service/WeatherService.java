@@ -1,21 +1,71 @@
 package com.meteorologia.service;
 
+import com.meteorologia.jfr.CacheLookupEvent;
+import com.meteorologia.jfr.GenerationEvent;
+import com.meteorologia.jfr.StationSearchEvent;
+import com.meteorologia.model.HourlyForecast;
 import com.meteorologia.model.WeatherData;
 import com.meteorologia.model.WeatherForecast;
 import com.meteorologia.model.WeatherStation;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class WeatherService {
 
-    private final Random random = new Random();
-    private final List<WeatherStation> mockStations;
+    private static final StationWeatherProcesses.Anomaly NO_ANOMALY = new StationWeatherProcesses.Anomaly(0, 0, 0);
+
+    @Inject
+    WeatherField weatherField;
+
+    @Inject
+    StationWeatherProcesses stationProcesses;
+
+    // Lecturas por coordenadas: tamaño de celda en grados (0,01° ≈ 1 km) y número máximo de celdas
+    @ConfigProperty(name = "meteorologia.location-cache.cell-degrees", defaultValue = "0.01")
+    double locationCellDegrees;
+
+    @ConfigProperty(name = "meteorologia.location-cache.max-cells", defaultValue = "20000")
+    int locationMaxCells;
+
+    // Inquilinos: estaciones de cada catálogo sintético y presupuesto de memoria de todos
+    @ConfigProperty(name = "meteorologia.tenants.stations", defaultValue = "20")
+    int tenantStations;
+
+    @ConfigProperty(name = "meteorologia.tenants.memory-budget-mb", defaultValue = "64")
+    long tenantMemoryBudgetMb;
+
+    @Inject
+    TenantContext tenantContext;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // Canal de hash de las semillas de inquilino
+    private static final int CH_TENANT = 201;
+
+    private Tenants tenants;
+
+    private static final Set<String> STATION_TYPES = Set.of("AUTOMATICA", "MANUAL", "MIXTA");
+    private static final Set<String> STATION_STATUSES = Set.of("ACTIVA", "INACTIVA", "MANTENIMIENTO");
+
+    private final List<WeatherStation> defaultStations;
     private final List<String> weatherConditions;
     private final List<String> weatherIcons;
     private final List<String> windDirections;
@@ -36,7 +86,59 @@ public class WeatherService {
             "Sur", "Suroeste", "Oeste", "Noroeste"
         );
         
-        this.mockStations = initializeMockStations();
+        this.defaultStations = initializeMockStations();
+    }
+
+    @PostConstruct
+    void initWeatherField() {
+        // El inquilino por defecto conserva el catálogo de siempre y la semilla del campo sin mezclar
+        Tenant defaultTenant = new Tenant(Tenants.DEFAULT_ID, 0, new StationCatalog(defaultStations),
+            new LocationCache(locationCellDegrees, locationMaxCells));
+        tenants = new Tenants(defaultTenant, this::loadTenant, tenantMemoryBudgetMb * 1024 * 1024, meterRegistry);
+        coverStations(defaultStations);
+    }
+
+    private Tenant loadTenant(String id) {
+        long seed = weatherField.hash(CH_TENANT, StationWeatherProcesses.stationKey(id), 0, 0);
+        // La caché de coordenadas de cada inquilino recibe una parte proporcional de las celdas
+        return new Tenant(id, seed,
+            new StationCatalog(SyntheticCatalogs.generate(seed, tenantStations)),
+            new LocationCache(locationCellDegrees, Math.max(1024, locationMaxCells / 8)));
+    }
+
+    /**
+     * Inquilino de la petición en curso; fuera de una petición (tareas de fondo), el de por defecto.
+     */
+    public Tenant currentTenant() {
+        if (!Arc.container().requestContext().isActive()) {
+            return tenants.get(null);
+        }
+        Tenant tenant = tenantContext.getTenant();
+        if (tenant == null) {
+            tenant = tenants.get(tenantContext.getTenantId());
+            tenantContext.setTenant(tenant);
+        }
+        return tenant;
+    }
+
+    /**
+     * Inquilino por defecto, para servicios que trabajan siempre sobre el catálogo de siempre.
+     */
+    public Tenant defaultTenant() {
+        return tenants.get(null);
+    }
+
+    private StationCatalog catalog() {
+        return currentTenant().catalog();
+    }
+
+    private void coverStations(List<WeatherStation> stations) {
+        // La rejilla cubre la caja de todas las estaciones
+        weatherField.cover(
+            stations.stream().mapToDouble(WeatherStation::getLatitude).min().orElse(-10),
+            stations.stream().mapToDouble(WeatherStation::getLatitude).max().orElse(10),
+            stations.stream().mapToDouble(WeatherStation::getLongitude).min().orElse(-10),
+            stations.stream().mapToDouble(WeatherStation::getLongitude).max().orElse(10));
     }
 
     private List<WeatherStation> initializeMockStations() {
@@ -69,65 +171,357 @@ public class WeatherService {
     }
 
     public List<WeatherStation> getAllStations() {
-        return new ArrayList<>(mockStations);
+        return catalog().snapshot().all();
     }
 
     public Optional<WeatherStation> getStationById(String id) {
-        return mockStations.stream()
-            .filter(station -> station.getId().equals(id))
-            .findFirst();
+        return catalog().snapshot().findById(id);
     }
 
-    public List<WeatherStation> getStationsByCity(String city) {
-        return mockStations.stream()
-            .filter(station -> station.getCity().toLowerCase().contains(city.toLowerCase()))
-            .collect(Collectors.toList());
+    public List<WeatherStation> searchStationsFuzzy(String query, int maxDistance, int limit) {
+        return catalog().snapshot().fuzzySearch(query, maxDistance, limit);
     }
 
-    public List<WeatherStation> getStationsByCountry(String country) {
-        return mockStations.stream()
-            .filter(station -> station.getCountry().toLowerCase().contains(country.toLowerCase()))
-            .collect(Collectors.toList());
+    public StationRegistry.Page getStationsPage(StationRegistry.StationQuery query, String cursor, int limit) {
+        return catalog().snapshot().page(query, cursor, limit);
+    }
+
+    /**
+     * Da de alta una estación. Si no trae id se le asigna uno libre.
+     *
+     * @throws IllegalArgumentException si los datos de la estación no son válidos
+     * @throws IllegalStateException si ya existe una estación con ese id
+     */
+    public WeatherStation createStation(WeatherStation station) {
+        WeatherStation created = validated(station, LocalDateTime.now());
+        return catalog().write(batch -> {
+            if (created.getId() == null) {
+                created.setId(nextFreeId(batch));
+            } else if (batch.contains(created.getId())) {
+                throw new IllegalStateException("Ya existe una estación con id " + created.getId());
+            }
+            batch.put(created);
+            return created;
+        });
+    }
+
+    /**
+     * Sustituye por completo los datos de una estación existente.
+     *
+     * @throws IllegalArgumentException si los datos de la estación no son válidos
+     */
+    public Optional<WeatherStation> replaceStation(String id, WeatherStation station) {
+        if (station.getId() != null && !station.getId().equals(id)) {
+            throw new IllegalArgumentException("El id del cuerpo no coincide con el de la ruta");
+        }
+        return catalog().write(batch -> {
+            WeatherStation existing = batch.find(id);
+            if (existing == null) {
+                return Optional.<WeatherStation>empty();
+            }
+            WeatherStation replaced = validated(station, existing.getInstallationDate());
+            replaced.setId(id);
+            batch.put(replaced);
+            return Optional.of(replaced);
+        });
+    }
+
+    /**
+     * Actualiza solo los campos no nulos de {@code changes}.
+     *
+     * @throws IllegalArgumentException si el resultado no es válido
+     */
+    public Optional<WeatherStation> patchStation(String id, WeatherStation changes) {
+        if (changes.getId() != null && !changes.getId().equals(id)) {
+            throw new IllegalArgumentException("El id del cuerpo no coincide con el de la ruta");
+        }
+        return catalog().write(batch -> {
+            WeatherStation existing = batch.find(id);
+            if (existing == null) {
+                return Optional.<WeatherStation>empty();
+            }
+            WeatherStation patched = validated(merge(existing, changes), existing.getInstallationDate());
+            patched.setId(id);
+            batch.put(patched);
+            return Optional.of(patched);
+        });
+    }
+
+    /**
+     * Da de alta o sustituye un lote de estaciones ya validadas con una única
+     * instantánea nueva. Las que no traen id reciben uno libre.
+     *
+     * @return número de estaciones escritas
+     */
+    public int importStations(List<WeatherStation> stations) {
+        if (stations.isEmpty()) {
+            return 0;
+        }
+        catalog().write(batch -> {
+            for (WeatherStation station : stations) {
+                if (station.getId() == null) {
+                    station.setId(nextFreeId(batch));
+                }
+                batch.put(station);
+            }
+            return null;
+        });
+        // Las estaciones importadas pueden quedar fuera de la caja de la rejilla. Solo cuenta el
+        // catálogo por defecto: fuera de la rejilla el campo se evalúa punto a punto
+        if (currentTenant().getId().equals(Tenants.DEFAULT_ID)) {
+            coverStations(catalog().snapshot().all());
+        }
+        return stations.size();
+    }
+
+    /**
+     * Da de baja una estación. Su ordinal no se reutiliza.
+     */
+    public boolean deleteStation(String id) {
+        return catalog().write(batch -> batch.remove(id));
+    }
+
+    private static String nextFreeId(StationCatalog.Batch batch) {
+        for (int n = batch.capacity() + 1; ; n++) {
+            String id = String.format("STATION_%03d", n);
+            if (!batch.contains(id)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Copia validada y normalizada de la estación. Las instancias publicadas en el
+     * catálogo no se modifican nunca: cada escritura crea una nueva.
+     */
+    static WeatherStation validated(WeatherStation station, LocalDateTime defaultInstallation) {
+        if (isBlank(station.getName()) || isBlank(station.getCity()) || isBlank(station.getCountry())) {
+            throw new IllegalArgumentException("Nombre, ciudad y país son requeridos");
+        }
+        if (station.getLatitude() == null || station.getLongitude() == null) {
+            throw new IllegalArgumentException("Latitud y longitud son requeridas");
+        }
+        // NaN no cumple ninguna comparación: sin comprobarlo pasaría el rango
+        if (!Double.isFinite(station.getLatitude()) || !Double.isFinite(station.getLongitude())
+                || station.getLatitude() < -90 || station.getLatitude() > 90
+                || station.getLongitude() < -180 || station.getLongitude() > 180) {
+            throw new IllegalArgumentException("Coordenadas fuera de rango válido");
+        }
+        String type = station.getStationType() == null ? "AUTOMATICA" : station.getStationType().toUpperCase();
+        if (!STATION_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Tipo de estación no válido: " + station.getStationType());
+        }
+        String status = station.getStatus() == null ? "ACTIVA" : station.getStatus().toUpperCase();
+        if (!STATION_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Estado de estación no válido: " + station.getStatus());
+        }
+        return new WeatherStation(
+            isBlank(station.getId()) ? null : station.getId().trim(),
+            station.getName(), station.getCity(), station.getCountry(), station.getRegion(),
+            station.getLatitude(), station.getLongitude(), station.getAltitude(),
+            station.getTimeZone(), type, status,
+            station.getInstallationDate() != null ? station.getInstallationDate() : defaultInstallation,
+            LocalDateTime.now(),
+            station.getResponsibleOrganization(), station.getContactInfo(), station.getDescription());
+    }
+
+    private static WeatherStation merge(WeatherStation existing, WeatherStation changes) {
+        return new WeatherStation(
+            existing.getId(),
+            coalesce(changes.getName(), existing.getName()),
+            coalesce(changes.getCity(), existing.getCity()),
+            coalesce(changes.getCountry(), existing.getCountry()),
+            coalesce(changes.getRegion(), existing.getRegion()),
+            coalesce(changes.getLatitude(), existing.getLatitude()),
+            coalesce(changes.getLongitude(), existing.getLongitude()),
+            coalesce(changes.getAltitude(), existing.getAltitude()),
+            coalesce(changes.getTimeZone(), existing.getTimeZone()),
+            coalesce(changes.getStationType(), existing.getStationType()),
+            coalesce(changes.getStatus(), existing.getStatus()),
+            coalesce(changes.getInstallationDate(), existing.getInstallationDate()),
+            existing.getLastUpdate(),
+            coalesce(changes.getResponsibleOrganization(), existing.getResponsibleOrganization()),
+            coalesce(changes.getContactInfo(), existing.getContactInfo()),
+            coalesce(changes.getDescription(), existing.getDescription()));
+    }
+
+    private static <T> T coalesce(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Instantánea actual del catálogo, para recorridos que deben ver un estado coherente.
+     */
+    public StationRegistry getStationSnapshot() {
+        return catalog().snapshot();
+    }
+
+    /**
+     * Lectura actual de una estación de la instantánea {@code registry}.
+     */
+    public WeatherData getCurrentWeather(StationRegistry registry, WeatherStation station) {
+        return getCurrentWeather(currentTenant(), registry, station);
+    }
+
+    /**
+     * Lectura actual de una estación de {@code tenant}, para cálculos fuera del hilo de la
+     * petición, donde no hay inquilino en curso.
+     */
+    public WeatherData getCurrentWeather(Tenant tenant, StationRegistry registry, WeatherStation station) {
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        StationWeatherProcesses.Anomaly anomaly = stationProcesses.current(tenant.stationKey(station.getId()));
+        WeatherData reading = generateMockWeatherData(station, station.getLatitude(), station.getLongitude(),
+            Climatology.elevationOffset(station.getAltitude()), anomaly);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "current";
+            event.stationId = station.getId();
+            event.items = 1;
+            event.commit();
+        }
+        return reading;
     }
 
     public WeatherData getCurrentWeather(String stationId) {
-        Optional<WeatherStation> station = getStationById(stationId);
+        StationRegistry registry = catalog().snapshot();
+        Optional<WeatherStation> station = registry.findById(stationId);
         if (station.isEmpty()) {
             return null;
         }
 
-        WeatherStation ws = station.get();
-        return generateMockWeatherData(ws);
+        // La estación añade su anomalía propia sobre el campo, persistente entre ticks
+        return getCurrentWeather(registry, station.get());
     }
 
     public WeatherData getCurrentWeatherByLocation(Double latitude, Double longitude) {
-        // Buscar la estación más cercana
-        WeatherStation nearestStation = findNearestStation(latitude, longitude);
-        return generateMockWeatherDataForLocation(nearestStation, latitude, longitude);
+        // Coordenadas ajustadas a su celda: los clientes cercanos comparten estación y lectura
+        Tenant tenant = currentTenant();
+        LocationCache locationCache = tenant.locationCache();
+        StationRegistry registry = tenant.catalog().snapshot();
+        long tick = weatherField.currentTick();
+        CacheLookupEvent lookup = new CacheLookupEvent();
+        lookup.begin();
+        long cell = locationCache.cellOf(latitude, longitude);
+        LocationCache.Entry cached = locationCache.get(cell);
+        boolean hit = cached != null && cached.registry() == registry && cached.tick() == tick;
+        if (!hit) {
+            double cellLat = locationCache.centerLatitude(cell);
+            double cellLon = locationCache.centerLongitude(cell);
+            // La estación más cercana solo se vuelve a buscar si ha cambiado el catálogo
+            WeatherStation nearestStation = cached != null && cached.registry() == registry
+                ? cached.station()
+                : findNearestStation(registry, cellLat, cellLon);
+            GenerationEvent generation = new GenerationEvent();
+            generation.begin();
+            cached = new LocationCache.Entry(registry, nearestStation, tick,
+                generateMockWeatherDataForLocation(nearestStation, cellLat, cellLon));
+            generation.end();
+            if (generation.shouldCommit()) {
+                generation.kind = "location";
+                generation.stationId = nearestStation != null ? nearestStation.getId() : null;
+                generation.items = 1;
+                generation.commit();
+            }
+            locationCache.put(cell, cached);
+        }
+        lookup.end();
+        if (lookup.shouldCommit()) {
+            lookup.cache = "location";
+            lookup.hit = hit;
+            lookup.commit();
+        }
+        return withCoordinates(cached.reading(), latitude, longitude);
     }
 
     public List<WeatherForecast> getForecast(String stationId, int days) {
-        Optional<WeatherStation> station = getStationById(stationId);
+        StationRegistry registry = catalog().snapshot();
+        Optional<WeatherStation> station = registry.findById(stationId);
         if (station.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return IntStream.range(1, days + 1)
-            .mapToObj(i -> generateMockForecast(LocalDate.now().plusDays(i)))
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        WeatherStation ws = station.get();
+        SolarTimes.Table solar = registry.solarTimes(registry.ordinalOf(stationId));
+        List<WeatherForecast> forecast = IntStream.range(1, days + 1)
+            .mapToObj(i -> {
+                LocalDate date = LocalDate.now().plusDays(i);
+                return generateMockForecast(ws.getLatitude(), ws.getLongitude(),
+                    Climatology.elevationOffset(ws.getAltitude()), ws.getId(), date,
+                    solar.sunrise(date), solar.sunset(date));
+            })
             .collect(Collectors.toList());
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "forecast";
+            event.stationId = stationId;
+            event.items = forecast.size();
+            event.commit();
+        }
+        return forecast;
     }
 
     public List<WeatherForecast> getForecastByLocation(Double latitude, Double longitude, int days) {
-        return IntStream.range(1, days + 1)
-            .mapToObj(i -> generateMockForecast(LocalDate.now().plusDays(i)))
+        // Sin estación asociada: solo el campo, sin anomalía propia
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        List<WeatherForecast> forecast = IntStream.range(1, days + 1)
+            .mapToObj(i -> {
+                LocalDate date = LocalDate.now().plusDays(i);
+                return generateMockForecast(latitude, longitude, 0, null, date,
+                    SolarTimes.sunrise(latitude, longitude, date), SolarTimes.sunset(latitude, longitude, date));
+            })
             .collect(Collectors.toList());
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "forecast";
+            event.items = forecast.size();
+            event.commit();
+        }
+        return forecast;
+    }
+
+    /**
+     * Pronóstico horario de una estación desde la próxima hora en punto (UTC).
+     * Los puntos se generan de uno en uno al consumir el stream.
+     */
+    public Stream<HourlyForecast> getHourlyForecast(WeatherStation station, int hours) {
+        long now = weatherField.currentTick();
+        long firstHour = (weatherField.tickStartMillis(now) / 3_600_000 + 1) * 3_600_000;
+        // La anomalía actual se calcula una vez y se amortigua hora a hora
+        StationWeatherProcesses.Anomaly current = stationProcesses.current(currentTenant().stationKey(station.getId()));
+        double elevationOffset = Climatology.elevationOffset(station.getAltitude());
+        return IntStream.range(0, hours).mapToObj(h -> {
+            long millis = firstHour + h * 3_600_000L;
+            long tick = weatherField.tickAt(millis);
+            return generateHourlyForecast(station, millis, elevationOffset,
+                weatherField.sampleAt(station.getLatitude(), station.getLongitude(), tick),
+                stationProcesses.expected(current, tick - now));
+        });
     }
 
-    private WeatherStation findNearestStation(Double lat, Double lon) {
-        return mockStations.stream()
+    private WeatherStation findNearestStation(StationRegistry registry, double lat, double lon) {
+        StationSearchEvent event = new StationSearchEvent();
+        event.begin();
+        List<WeatherStation> stations = registry.all();
+        WeatherStation nearest = stations.stream()
             .min(Comparator.comparingDouble(station -> 
                 calculateDistance(lat, lon, station.getLatitude(), station.getLongitude())))
-            .orElse(mockStations.get(0));
+            .orElse(null);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "nearest";
+            event.candidatesScanned = stations.size();
+            event.results = nearest != null ? 1 : 0;
+            event.commit();
+        }
+        return nearest;
     }
 
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
@@ -141,85 +535,176 @@ public class WeatherService {
         return R * c;
     }
 
-    private WeatherData generateMockWeatherData(WeatherStation station) {
-        return generateMockWeatherDataForLocation(station, station.getLatitude(), station.getLongitude());
+    private static WeatherData withCoordinates(WeatherData reading, double lat, double lon) {
+        // La lectura de la celda es compartida: cada respuesta lleva una copia con las coordenadas pedidas
+        return new WeatherData(
+            reading.getStationId(), reading.getCity(), reading.getCountry(), lat, lon,
+            reading.getTemperature(), reading.getFeelsLike(), reading.getHumidity(), reading.getPressure(),
+            reading.getWindSpeed(), reading.getWindDirection(), reading.getWindDescription(),
+            reading.getVisibility(), reading.getUvIndex(), reading.getWeatherDescription(),
+            reading.getWeatherIcon(), reading.getMeasurementTime(), reading.getPrecipitation24h());
     }
 
-    private WeatherData generateMockWeatherDataForLocation(WeatherStation station, Double lat, Double lon) {
-        double baseTemp = getBaseTemperatureForLocation(lat);
-        double temperature = baseTemp + (random.nextGaussian() * 5);
-        double feelsLike = temperature + (random.nextGaussian() * 2);
-        
-        int weatherIndex = random.nextInt(weatherConditions.size());
-        int windDirIndex = random.nextInt(8);
-        
+    private WeatherData generateMockWeatherDataForLocation(WeatherStation station, double lat, double lon) {
+        // La altitud de un punto arbitrario no se conoce: se lee a nivel del mar
+        return generateMockWeatherData(station, lat, lon, 0, NO_ANOMALY);
+    }
+
+    private WeatherData generateMockWeatherData(WeatherStation station, double lat, double lon,
+                                                double elevationOffset, StationWeatherProcesses.Anomaly anomaly) {
+        // Lectura interpolada del campo del tick actual: puntos cercanos dan valores cercanos
+        WeatherField.Sample sample = weatherField.sample(lat, lon);
+        double temperature = sample.temperature() + elevationOffset + anomaly.temperature();
+        double humidity = sample.humidity();
+        double windSpeed = Math.max(0, sample.windSpeed() + anomaly.wind());
+        double precipitation = precipitationFor(sample.cloudCover(), humidity);
+        int weatherIndex = weatherIndexFor(temperature, humidity, windSpeed, sample.cloudCover(), precipitation);
+
+        // Sin estaciones en el catálogo la lectura por coordenadas no tiene estación asociada
         return new WeatherData(
-            station.getId(),
-            station.getCity(),
-            station.getCountry(),
+            station != null ? station.getId() : null,
+            station != null ? station.getCity() : null,
+            station != null ? station.getCountry() : null,
             lat,
             lon,
             Math.round(temperature * 10.0) / 10.0,
-            Math.round(feelsLike * 10.0) / 10.0,
-            30 + random.nextInt(70), // Humedad 30-100%
-            950.0 + random.nextDouble() * 100, // Presión 950-1050 hPa
-            random.nextDouble() * 30, // Viento 0-30 km/h
-            windDirIndex * 45, // Dirección del viento
-            windDirections.get(windDirIndex),
-            5.0 + random.nextDouble() * 15, // Visibilidad 5-20 km
-            random.nextInt(12), // UV index 0-11
+            Math.round(feelsLike(temperature, humidity, windSpeed) * 10.0) / 10.0,
+            (int) Math.round(humidity),
+            Math.round((sample.pressure() + anomaly.pressure()) * 10.0) / 10.0,
+            Math.round(windSpeed * 10.0) / 10.0,
+            sample.windDirection(),
+            windDirections.get(Math.floorMod(Math.round(sample.windDirection() / 45.0f), 8)),
+            Math.round(visibilityFor(weatherIndex, humidity, precipitation) * 10.0) / 10.0,
+            uvIndexFor(lat, sample.cloudCover()),
             weatherConditions.get(weatherIndex),
             weatherIcons.get(weatherIndex),
-            LocalDateTime.now(),
-            random.nextDouble() * 10 // Precipitación 0-10mm
+            measurementTime(),
+            Math.round(precipitation * 10.0) / 10.0
         );
     }
 
-    private WeatherForecast generateMockForecast(LocalDate date) {
-        double baseTemp = 15 + random.nextGaussian() * 10;
-        double maxTemp = baseTemp + random.nextDouble() * 10;
-        double minTemp = baseTemp - random.nextDouble() * 10;
-        
-        int weatherIndex = random.nextInt(weatherConditions.size());
-        int windDirIndex = random.nextInt(8);
-        
+    private LocalDateTime measurementTime() {
+        // Inicio del tick y no el reloj local: la misma lectura en todas las réplicas y cacheable
+        long millis = weatherField.tickStartMillis(weatherField.currentTick());
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private double precipitationFor(double cloudCover, double humidity) {
+        // Solo llueve con cielo muy cubierto y aire húmedo
+        double excess = Math.max(0, cloudCover - 0.65) / 0.35;
+        return excess * (humidity / 100.0) * 15;
+    }
+
+    private int weatherIndexFor(double temperature, double humidity, double windSpeed,
+                                double cloudCover, double precipitation) {
+        if (precipitation > 0.5) {
+            if (temperature < 1) return 9; // Nieve
+            if (precipitation > 9) return temperature < 10 ? 8 : 5; // Granizo / Tormenta
+            return precipitation > 4 ? 4 : 3; // Lluvia / Lluvia ligera
+        }
+        if (humidity > 95 && windSpeed < 5) return 6; // Niebla
+        if (windSpeed > 25) return 7; // Viento fuerte
+        if (cloudCover < 0.3) return 0; // Soleado
+        return cloudCover < 0.6 ? 1 : 2; // Parcialmente nublado / Nublado
+    }
+
+    private double feelsLike(double temperature, double humidity, double windSpeed) {
+        // Temperatura aparente de Steadman (viento en m/s)
+        double vapourPressure = humidity / 100.0 * 6.105 * Math.exp(17.27 * temperature / (237.7 + temperature));
+        return temperature + 0.33 * vapourPressure - 0.70 * (windSpeed / 3.6) - 4.0;
+    }
+
+    private double visibilityFor(int weatherIndex, double humidity, double precipitation) {
+        if (weatherIndex == 6) return 0.5 + (100 - humidity) / 5.0;
+        return Math.max(1.0, 20.0 - precipitation - Math.max(0, humidity - 80) / 4.0);
+    }
+
+    private int uvIndexFor(double latitude, double cloudCover) {
+        double clearSkyUv = 11 - Math.abs(latitude) / 10.0;
+        return (int) Math.max(0, Math.min(11, Math.round(clearSkyUv * (1 - 0.75 * cloudCover))));
+    }
+
+    private WeatherForecast generateMockForecast(double lat, double lon, double elevationOffset, String stationId,
+                                                 LocalDate date, String sunrise, String sunset) {
+        // Valores a mediodía del día previsto: campo en ese tick más la anomalía actual amortiguada
+        long targetTick = weatherField.tickAt(date.atTime(12, 0).toInstant(ZoneOffset.UTC).toEpochMilli());
+        WeatherField.Sample sample = weatherField.sampleAt(lat, lon, targetTick);
+        StationWeatherProcesses.Anomaly anomaly = stationId == null ? NO_ANOMALY
+            : stationProcesses.expected(currentTenant().stationKey(stationId), targetTick - weatherField.currentTick());
+
+        // Máxima y mínima: climatología en sus horas solares más la desviación del campo a mediodía
+        double deviation = sample.temperature() + elevationOffset + anomaly.temperature()
+            - Climatology.temperature(lat, lon, weatherField.tickStartMillis(targetTick));
+        double maxTemp = Climatology.temperature(lat, lon, solarMillis(date, lon, Climatology.WARMEST_HOUR)) + deviation;
+        double minTemp = Climatology.temperature(lat, lon, solarMillis(date, lon, Climatology.COLDEST_HOUR)) + deviation;
+        double meanTemp = sample.temperature() + elevationOffset + anomaly.temperature();
+        double humidity = sample.humidity();
+        double windSpeed = Math.max(0, sample.windSpeed() + anomaly.wind());
+        double precipitation = precipitationFor(sample.cloudCover(), humidity);
+        int weatherIndex = weatherIndexFor(meanTemp, humidity, windSpeed, sample.cloudCover(), precipitation);
+
         return new WeatherForecast(
             date,
             Math.round(maxTemp * 10.0) / 10.0,
             Math.round(minTemp * 10.0) / 10.0,
-            40 + random.nextInt(60), // Humedad 40-100%
-            random.nextInt(101), // Probabilidad precipitación 0-100%
-            random.nextDouble() * 20, // Cantidad precipitación 0-20mm
-            random.nextDouble() * 25, // Viento 0-25 km/h
-            windDirIndex * 45,
-            windDirections.get(windDirIndex),
-            random.nextInt(12), // UV index
+            (int) Math.round(humidity),
+            (int) Math.round(100 * Math.min(1, Math.max(0, (sample.cloudCover() - 0.4) / 0.5))), // Probabilidad precipitación
+            Math.round(precipitation * 10.0) / 10.0,
+            Math.round(windSpeed * 10.0) / 10.0,
+            sample.windDirection(),
+            windDirections.get(Math.floorMod(Math.round(sample.windDirection() / 45.0f), 8)),
+            uvIndexFor(lat, sample.cloudCover()),
             weatherConditions.get(weatherIndex),
             weatherIcons.get(weatherIndex),
-            String.format("%02d:%02d", 6 + random.nextInt(2), random.nextInt(60)), // Amanecer 6:00-7:59
-            String.format("%02d:%02d", 19 + random.nextInt(3), random.nextInt(60)) // Atardecer 19:00-21:59
+            sunrise,
+            sunset
+        );
+    }
+
+    private HourlyForecast generateHourlyForecast(WeatherStation station, long millis, double elevationOffset,
+                                                  WeatherField.Sample sample, StationWeatherProcesses.Anomaly anomaly) {
+        double temperature = sample.temperature() + elevationOffset + anomaly.temperature();
+        double humidity = sample.humidity();
+        double windSpeed = Math.max(0, sample.windSpeed() + anomaly.wind());
+        // precipitationFor da la intensidad como cantidad diaria; la hora recibe su parte
+        double precipitation = precipitationFor(sample.cloudCover(), humidity);
+        int weatherIndex = weatherIndexFor(temperature, humidity, windSpeed, sample.cloudCover(), precipitation);
+
+        return new HourlyForecast(
+            station.getId(),
+            OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC),
+            Math.round(temperature * 10.0) / 10.0,
+            Math.round(feelsLike(temperature, humidity, windSpeed) * 10.0) / 10.0,
+            (int) Math.round(humidity),
+            Math.round((sample.pressure() + anomaly.pressure()) * 10.0) / 10.0,
+            Math.round(windSpeed * 10.0) / 10.0,
+            sample.windDirection(),
+            (int) Math.round(sample.cloudCover() * 100),
+            (int) Math.round(100 * Math.min(1, Math.max(0, (sample.cloudCover() - 0.4) / 0.5))),
+            Math.round(precipitation / 24 * 10.0) / 10.0,
+            weatherConditions.get(weatherIndex),
+            weatherIcons.get(weatherIndex)
         );
     }
 
-    private double getBaseTemperatureForLocation(Double latitude) {
-        // Temperatura base según latitud (aproximación muy simple)
-        double absLat = Math.abs(latitude);
-        if (absLat < 23.5) return 25; // Trópicos
-        else if (absLat < 40) return 18; // Subtropicales
-        else if (absLat < 60) return 10; // Templadas
-        else return 0; // Polares
+    private static long solarMillis(LocalDate date, double lon, int solarHour) {
+        // Hora solar local a UTC: cuatro minutos por grado de longitud
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()
+            + Math.round((solarHour - lon / 15) * 3_600_000);
     }
 
     public Map<String, Object> getStationStatistics() {
+        // Una sola instantánea: todos los contadores son coherentes entre sí
+        List<WeatherStation> stations = catalog().snapshot().all();
         Map<String, Object> stats = new HashMap<>();
-        stats.put("total_stations", mockStations.size());
-        stats.put("active_stations", mockStations.stream()
+        stats.put("total_stations", stations.size());
+        stats.put("active_stations", stations.stream()
             .mapToLong(s -> "ACTIVA".equals(s.getStatus()) ? 1 : 0).sum());
-        stats.put("inactive_stations", mockStations.stream()
+        stats.put("inactive_stations", stations.stream()
             .mapToLong(s -> "INACTIVA".equals(s.getStatus()) ? 1 : 0).sum());
-        stats.put("maintenance_stations", mockStations.stream()
+        stats.put("maintenance_stations", stations.stream()
             .mapToLong(s -> "MANTENIMIENTO".equals(s.getStatus()) ? 1 : 0).sum());
-        stats.put("countries", mockStations.stream()
+        stats.put("countries", stations.stream()
             .map(WeatherStation::getCountry).distinct().count());
         stats.put("last_updated", LocalDateTime.now());
         return stats;
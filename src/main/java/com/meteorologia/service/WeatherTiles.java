@@ -0,0 +1,297 @@
+package com.meteorologia.service;
+
+import com.meteorologia.jfr.CacheLookupEvent;
+import com.meteorologia.model.WeatherData;
+import com.meteorologia.model.WeatherStation;
+import com.meteorologia.model.WeatherTile;
+import io.vertx.core.Vertx;
+import org.jboss.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Agregados de tiempo por tesela XYZ (Web Mercator).
+ *
+ * Por cada tick del campo y cada instantánea del catálogo se construye una
+ * pirámide: las estaciones se reparten en cubos de teselas de zoom
+ * {@link #BASE_ZOOM} y cada nivel más grueso se obtiene fusionando los cubos
+ * del nivel inferior, sin volver a recorrer estaciones. Las teselas más finas
+ * que la base se calculan filtrando solo las estaciones de su cubo base y se
+ * guardan en una caché acotada de la misma pirámide.
+ *
+ * Al cambiar de tick se sigue sirviendo la pirámide anterior mientras la nueva
+ * se construye en un worker de Vert.x; solo la primera petición de un inquilino
+ * o la primera tras editar el catálogo esperan a la construcción.
+ */
+@ApplicationScoped
+public class WeatherTiles {
+
+    private static final Logger LOG = Logger.getLogger(WeatherTiles.class);
+
+    public static final int MAX_ZOOM = 22;
+
+    static final int BASE_ZOOM = 12;
+
+    private static final int MAX_CACHED_FINE_TILES = 4096;
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    WeatherField weatherField;
+
+    @Inject
+    Vertx vertx;
+
+    /**
+     * Tesela servida y tick de la pirámide de la que sale, que puede ser el anterior
+     * mientras se reconstruye.
+     */
+    public record ServedTile(WeatherTile tile, long tick) {}
+
+    /**
+     * Agregado de la tesela {@code z/x/y}.
+     *
+     * @throws IllegalArgumentException si la tesela no existe
+     */
+    public ServedTile tile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("El zoom debe estar entre 0 y " + MAX_ZOOM);
+        }
+        if (x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Tesela fuera de rango para el zoom " + z);
+        }
+        Pyramid current = current();
+        Aggregate aggregate = z <= BASE_ZOOM ? current.levels.get(z).get(key(x, y)) : current.fine(z, x, y);
+        return new ServedTile(current.toTile(z, x, y, aggregate), current.tick);
+    }
+
+    /**
+     * Segundos hasta que cambie el tick y, con él, los agregados.
+     */
+    public long secondsToNextBucket() {
+        long tickMillis = weatherField.tickSeconds() * 1000;
+        long elapsed = System.currentTimeMillis() % tickMillis;
+        return Math.max(1, (tickMillis - elapsed) / 1000);
+    }
+
+    /**
+     * Segundos que se puede guardar algo calculado en {@code tick}: hasta el siguiente
+     * tick si es el actual y 0 si ya está desfasado.
+     */
+    public long maxAgeSeconds(long tick) {
+        return tick == weatherField.currentTick() ? secondsToNextBucket() : 0;
+    }
+
+    private Pyramid current() {
+        long tick = weatherField.currentTick();
+        Tenant tenant = weatherService.currentTenant();
+        StationRegistry registry = tenant.catalog().snapshot();
+        // Una pirámide por inquilino: alternar inquilinos no obliga a reconstruirla
+        AtomicReference<Pyramid> slot = tenant.slot(WeatherTiles.class);
+        Pyramid p = slot.get();
+        if (p != null && p.tick == tick && p.registry == registry) {
+            return p;
+        }
+        if (p != null && p.registry == registry) {
+            // Mismo catálogo, tick anterior: se sirve la que hay y se renueva en segundo plano
+            refresh(tenant, slot, p);
+            return p;
+        }
+        synchronized (slot) {
+            p = slot.get();
+            if (p == null || p.registry != registry) {
+                p = new Pyramid(tenant, weatherField.currentTick(), registry);
+                slot.set(p);
+            }
+            return p;
+        }
+    }
+
+    private void refresh(Tenant tenant, AtomicReference<Pyramid> slot, Pyramid stale) {
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        vertx.executeBlocking(() -> new Pyramid(tenant, weatherField.currentTick(), stale.registry), false)
+            .onSuccess(next -> slot.compareAndSet(stale, next))
+            .onFailure(failure -> {
+                stale.refreshing.set(false);
+                LOG.error("No se pudo reconstruir la pirámide de teselas", failure);
+            });
+    }
+
+    static int tileX(double lon, int z) {
+        int n = 1 << z;
+        return Math.min(n - 1, Math.max(0, (int) Math.floor((lon + 180.0) / 360.0 * n)));
+    }
+
+    static int tileY(double lat, int z) {
+        int n = 1 << z;
+        double latRad = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat)));
+        double y = (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * n;
+        return Math.min(n - 1, Math.max(0, (int) Math.floor(y)));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private final class Pyramid {
+
+        final long tick;
+        final StationRegistry registry;
+        final double[] latitude;
+        final double[] longitude;
+        final double[] temperature;
+        final int[] icon;
+        final String[] icons;
+        // Índice = zoom, de 0 a BASE_ZOOM
+        final List<Map<Long, Aggregate>> levels;
+        final Map<Long, Aggregate> fineTiles = new ConcurrentHashMap<>();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Pyramid(Tenant tenant, long tick, StationRegistry registry) {
+            this.tick = tick;
+            this.registry = registry;
+            List<WeatherStation> stations = registry.all();
+            int n = stations.size();
+            latitude = new double[n];
+            longitude = new double[n];
+            temperature = new double[n];
+            icon = new int[n];
+
+            Map<String, Integer> iconIndex = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                WeatherStation station = stations.get(i);
+                WeatherData reading = weatherService.getCurrentWeather(tenant, registry, station);
+                latitude[i] = station.getLatitude();
+                longitude[i] = station.getLongitude();
+                temperature[i] = reading.getTemperature();
+                icon[i] = iconIndex.computeIfAbsent(reading.getWeatherIcon(), k -> iconIndex.size());
+            }
+            icons = iconIndex.keySet().toArray(new String[0]);
+
+            // Cubos del nivel base, con sus estaciones para las teselas más finas
+            Map<Long, Aggregate> base = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                base.computeIfAbsent(key(tileX(longitude[i], BASE_ZOOM), tileY(latitude[i], BASE_ZOOM)),
+                    k -> new Aggregate(icons.length, true)).add(i, temperature[i], icon[i]);
+            }
+            List<Map<Long, Aggregate>> built = new ArrayList<>(Collections.nCopies(BASE_ZOOM + 1, null));
+            built.set(BASE_ZOOM, base);
+
+            // Cada nivel grueso se obtiene de las teselas del nivel inmediatamente más fino
+            for (int z = BASE_ZOOM - 1; z >= 0; z--) {
+                Map<Long, Aggregate> coarse = new HashMap<>();
+                built.get(z + 1).forEach((k, fine) -> {
+                    int x = (int) (k >>> 32);
+                    int y = (int) (long) k;
+                    coarse.computeIfAbsent(key(x >> 1, y >> 1), c -> new Aggregate(icons.length, false)).merge(fine);
+                });
+                built.set(z, coarse);
+            }
+            levels = Collections.unmodifiableList(built);
+        }
+
+        Aggregate fine(int z, int x, int y) {
+            long cacheKey = ((long) z << 50) | ((long) x << 25) | y;
+            CacheLookupEvent event = new CacheLookupEvent();
+            event.begin();
+            Aggregate cached = fineTiles.get(cacheKey);
+            if (cached != null) {
+                commit(event, true);
+                return cached;
+            }
+            int shift = z - BASE_ZOOM;
+            Aggregate bucket = levels.get(BASE_ZOOM).get(key(x >> shift, y >> shift));
+            Aggregate aggregate = new Aggregate(icons.length, false);
+            if (bucket != null) {
+                for (int m = 0; m < bucket.count; m++) {
+                    int i = bucket.members[m];
+                    if (tileX(longitude[i], z) == x && tileY(latitude[i], z) == y) {
+                        aggregate.add(i, temperature[i], icon[i]);
+                    }
+                }
+            }
+            if (fineTiles.size() < MAX_CACHED_FINE_TILES) {
+                fineTiles.putIfAbsent(cacheKey, aggregate);
+            }
+            commit(event, false);
+            return aggregate;
+        }
+
+        private static void commit(CacheLookupEvent event, boolean hit) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.cache = "tiles";
+                event.hit = hit;
+                event.commit();
+            }
+        }
+
+        WeatherTile toTile(int z, int x, int y, Aggregate aggregate) {
+            if (aggregate == null || aggregate.count == 0) {
+                return new WeatherTile(z, x, y, 0, null, null);
+            }
+            return new WeatherTile(z, x, y, aggregate.count,
+                Math.round(aggregate.temperatureSum / aggregate.count * 10.0) / 10.0,
+                icons[aggregate.dominantIcon()]);
+        }
+    }
+
+    private static final class Aggregate {
+
+        int count;
+        double temperatureSum;
+        final int[] iconCounts;
+        // Solo en el nivel base: estaciones del cubo
+        int[] members;
+
+        Aggregate(int iconCount, boolean withMembers) {
+            this.iconCounts = new int[iconCount];
+            this.members = withMembers ? new int[4] : null;
+        }
+
+        void add(int station, double temperature, int icon) {
+            if (members != null) {
+                if (count == members.length) {
+                    members = Arrays.copyOf(members, count * 2);
+                }
+                members[count] = station;
+            }
+            count++;
+            temperatureSum += temperature;
+            iconCounts[icon]++;
+        }
+
+        void merge(Aggregate other) {
+            count += other.count;
+            temperatureSum += other.temperatureSum;
+            for (int i = 0; i < iconCounts.length; i++) {
+                iconCounts[i] += other.iconCounts[i];
+            }
+        }
+
+        int dominantIcon() {
+            int best = 0;
+            for (int i = 1; i < iconCounts.length; i++) {
+                if (iconCounts[i] > iconCounts[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.meteorologia.controller;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class AlertsControllerTest {
+
+    @TestHTTPResource("/api/alerts/stream")
+    URI streamUri;
+
+    @Test
+    public void testAlertsIgnoreRequestTenant() {
+        String id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"temperature\", \"operator\": \">\", \"threshold\": -100, " +
+                  "\"station_id\": \"STATION_002\"}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        // El inquilino tiene su propia STATION_002, en otra ciudad
+        given()
+            .header("X-Tenant", "equipo-avisos")
+            .when().get("/api/stations/STATION_002")
+            .then()
+                .statusCode(200)
+                .body("city", not("Barcelona"));
+
+        // Los avisos se evalúan sobre el catálogo por defecto aunque la consulta traiga inquilino
+        given()
+            .header("X-Tenant", "equipo-avisos")
+            .param("rule_id", id)
+            .when().get("/api/alerts")
+            .then()
+                .statusCode(200)
+                .body("city", everyItem(is("Barcelona")))
+                .body("station_id", hasItem("STATION_002"));
+
+        given()
+            .when().delete("/api/alerts/rules/" + id)
+            .then()
+                .statusCode(204);
+    }
+
+    @Test
+    public void testRegionRuleLifecycle() {
+        String id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"temperature\", \"operator\": \">\", \"threshold\": -100, " +
+                  "\"region\": \"Cataluña\", \"severity\": \"naranja\"}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(201)
+                .body("metric", is("temperature"))
+                .body("severity", is("NARANJA"))
+                .extract().path("id");
+
+        given()
+            .param("rule_id", id)
+            .when().get("/api/alerts")
+            .then()
+                .statusCode(200)
+                .body("station_id", hasItem("STATION_002"))
+                .body("region", everyItem(is("Cataluña")))
+                .body("severity", everyItem(is("NARANJA")));
+
+        given()
+            .when().delete("/api/alerts/rules/" + id)
+            .then()
+                .statusCode(204);
+
+        given()
+            .param("rule_id", id)
+            .when().get("/api/alerts")
+            .then()
+                .statusCode(200)
+                .body("size()", is(0));
+
+        given()
+            .when().delete("/api/alerts/rules/" + id)
+            .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testStationAndBelowThresholdRules() {
+        // Nombre de variable en camelCase y regla limitada a una estación
+        String stationRule = given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"windSpeed\", \"operator\": \">=\", \"threshold\": 0, \"station_id\": \"STATION_001\"}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(201)
+                .body("metric", is("wind_speed"))
+                .body("severity", is("AMARILLO"))
+                .extract().path("id");
+
+        String countryRule = given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"humidity\", \"operator\": \"<=\", \"threshold\": 100, \"country\": \"España\"}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+            .param("rule_id", stationRule)
+            .when().get("/api/alerts")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(1))
+                .body("[0].station_id", is("STATION_001"));
+
+        given()
+            .param("rule_id", countryRule)
+            .when().get("/api/alerts")
+            .then()
+                .statusCode(200)
+                .body("size()", greaterThanOrEqualTo(5))
+                .body("country", everyItem(is("España")));
+
+        given().when().delete("/api/alerts/rules/" + stationRule).then().statusCode(204);
+        given().when().delete("/api/alerts/rules/" + countryRule).then().statusCode(204);
+    }
+
+    @Test
+    public void testInvalidRules() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"ozone\", \"operator\": \">\", \"threshold\": 1}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(400);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"uv_index\", \"operator\": \"!=\", \"threshold\": 1}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(400);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"uv_index\", \"operator\": \">=\"}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(400);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"id\": \"RULE_DUP\", \"metric\": \"uv_index\", \"operator\": \">=\", \"threshold\": 10}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(201);
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"id\": \"RULE_DUP\", \"metric\": \"uv_index\", \"operator\": \">=\", \"threshold\": 10}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(409);
+        given().when().delete("/api/alerts/rules/RULE_DUP").then().statusCode(204);
+    }
+
+    @Test
+    public void testStreamPublishesActivations() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(streamUri)
+            .header("Accept", "text/event-stream")
+            .timeout(Duration.ofSeconds(10))
+            .build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertTrue(response.statusCode() == 200);
+
+        String id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"metric\": \"pressure\", \"operator\": \">\", \"threshold\": 0, \"station_id\": \"STATION_003\"}")
+            .when().post("/api/alerts/rules")
+            .then()
+                .statusCode(201)
+                .extract().path("id");
+        // La consulta fuerza la evaluación con la regla nueva
+        given().when().get("/api/alerts").then().statusCode(200);
+
+        CompletableFuture<String> event = CompletableFuture.supplyAsync(() -> {
+            Iterator<String> lines = response.body().iterator();
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.startsWith("data:") && line.contains("\"" + id + "\"")) {
+                    return line;
+                }
+            }
+            return null;
+        });
+        try {
+            String line = event.get(10, TimeUnit.SECONDS);
+            assertTrue(line.contains("\"ACTIVADO\""));
+            assertTrue(line.contains("\"STATION_003\""));
+        } finally {
+            response.body().close();
+            given().when().delete("/api/alerts/rules/" + id).then().statusCode(204);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.meteorologia.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class FaultProfilesControllerTest {
+
+    @AfterEach
+    public void clearProfiles() {
+        given()
+            .when().delete("/api/admin/fault-profiles")
+            .then()
+                .statusCode(204);
+    }
+
+    @Test
+    public void testInjectErrors() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[{\"endpoint\": \"/api/weather/current\", \"error_rate\": 1.0, \"error_status\": 502}]")
+            .when().put("/api/admin/fault-profiles")
+            .then()
+                .statusCode(200)
+                .body("size()", is(1));
+
+        given()
+            .when().get("/api/weather/current/STATION_001")
+            .then()
+                .statusCode(502)
+                .body("error", is("Fallo inyectado"));
+
+        // Otros endpoints no se ven afectados
+        given()
+            .when().get("/api/weather/forecast/STATION_001")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    public void testInjectFixedLatency() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[{\"endpoint\": \"/api/stations\", \"latency_distribution\": \"FIXED\", \"latency_ms\": 300}]")
+            .when().put("/api/admin/fault-profiles")
+            .then()
+                .statusCode(200);
+
+        long start = System.currentTimeMillis();
+        given()
+            .when().get("/api/stations/STATION_001")
+            .then()
+                .statusCode(200)
+                .body("id", is("STATION_001"));
+        org.junit.jupiter.api.Assertions.assertTrue(System.currentTimeMillis() - start >= 300);
+    }
+
+    @Test
+    public void testSlowDripBody() throws Exception {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[{\"endpoint\": \"/api/stations\", \"drip_chunk_bytes\": 64, \"drip_interval_ms\": 50}]")
+            .when().put("/api/admin/fault-profiles")
+            .then()
+                .statusCode(200);
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<String> drip = CompletableFuture.supplyAsync(() -> given()
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .body("size()", greaterThanOrEqualTo(5))
+                .body("[0].id", is("STATION_001"))
+                .extract().asString());
+
+        // Mientras gotea el cuerpo la petición ya no ocupa hueco en el límite de concurrencia
+        Thread.sleep(500);
+        given()
+            .when().get("/q/metrics")
+            .then()
+                .statusCode(200)
+                .body(containsString("meteorologia_concurrency_in_flight 0.0"));
+
+        drip.get(30, TimeUnit.SECONDS);
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+    }
+
+    @Test
+    public void testProfileMatchesWholePathSegments() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[{\"endpoint\": \"/api/stations/STATION_00\", \"error_rate\": 1.0, \"error_status\": 502}]")
+            .when().put("/api/admin/fault-profiles")
+            .then()
+                .statusCode(200);
+
+        given()
+            .when().get("/api/stations/STATION_001")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    public void testUniformLatencyRequiresOrderedBounds() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[{\"endpoint\": \"/api/weather\", \"latency_distribution\": \"UNIFORM\", " +
+                  "\"latency_min_ms\": 500, \"latency_max_ms\": 100}]")
+            .when().put("/api/admin/fault-profiles")
+            .then()
+                .statusCode(400)
+                .body("error", is("latency_min_ms no puede ser mayor que latency_max_ms"));
+    }
+
+    @Test
+    public void testInvalidProfile() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[{\"endpoint\": \"/api/weather\", \"latency_distribution\": \"PARETO\"}]")
+            .when().put("/api/admin/fault-profiles")
+            .then()
+                .statusCode(400)
+                .body("error", is("Distribución de latencia no soportada: PARETO"));
+
+        given()
+            .when().get("/api/admin/fault-profiles")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(0));
+    }
+}
@@ -0,0 +1,100 @@
+package com.meteorologia.controller;
+
+import com.meteorologia.service.ResponseArchive;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+@QuarkusTest
+@TestProfile(ReplayModeTest.ReplayProfile.class)
+public class ReplayModeTest {
+
+    public static class ReplayProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            try {
+                Path file = Files.createTempFile("respuestas", ".bin");
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    write(channel, "GET /api/weather/current/STATION_001", "{\"station_id\":\"grabada\"}");
+                    write(channel, "GET /api/stations?limit=1&type=AUTOMATICA", "[{\"id\":\"grabada\"}]",
+                        Map.of("X-Next-Cursor", List.of("o:2"), "Cache-Control", List.of("public, max-age=60")));
+                    // La última grabación de una misma clave prevalece
+                    write(channel, "GET /api/weather/current/STATION_001", "{\"station_id\":\"regrabada\"}");
+                }
+                file.toFile().deleteOnExit();
+                return Map.of(
+                    "meteorologia.replay.mode", "replay",
+                    "meteorologia.replay.file", file.toString()
+                );
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void write(FileChannel channel, String key, String body) throws IOException {
+            write(channel, key, body, Map.of());
+        }
+
+        private static void write(FileChannel channel, String key, String body, Map<String, List<String>> headers)
+                throws IOException {
+            Map<String, List<String>> recorded = new LinkedHashMap<>(headers);
+            recorded.put("Content-Type", List.of("application/json;charset=UTF-8"));
+            ByteBuffer record = ResponseArchive.encode(key, recorded, 200, body.getBytes(StandardCharsets.UTF_8));
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+    }
+
+    @Test
+    public void testReplayRecordedResponse() {
+        given()
+            .when().get("/api/weather/current/STATION_001")
+            .then()
+                .statusCode(200)
+                .header("X-Replay", is("hit"))
+                .body("station_id", is("regrabada"));
+    }
+
+    @Test
+    public void testReplayMatchesCanonicalQuery() {
+        given()
+            .queryParam("type", "AUTOMATICA")
+            .queryParam("limit", 1)
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .header("X-Replay", is("hit"))
+                .header("X-Next-Cursor", is("o:2"))
+                .header("Cache-Control", is("public, max-age=60"))
+                .header("Content-Type", is("application/json;charset=UTF-8"))
+                .body("[0].id", is("grabada"));
+    }
+
+    @Test
+    public void testReplayMissFallsBackToGeneration() {
+        given()
+            .when().get("/api/weather/current/STATION_002")
+            .then()
+                .statusCode(200)
+                .header("X-Replay", nullValue())
+                .body("station_id", is("STATION_002"));
+    }
+}
@@ -1,13 +1,20 @@
 package com.meteorologia.controller;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 
 @QuarkusTest
 public class StationsControllerTest {
@@ -24,6 +31,83 @@ public class StationsControllerTest {
                 .body("[0].city", notNullValue());
     }
 
+    @Test
+    public void testGetAllStationsPaginated() {
+        String cursor = given()
+            .param("limit", 2)
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .body("size()", is(2))
+                .body("[0].id", is("STATION_001"))
+                .header("X-Next-Cursor", notNullValue())
+                .extract().header("X-Next-Cursor");
+
+        given()
+            .param("limit", 2)
+            .param("cursor", cursor)
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .body("size()", is(2))
+                .body("[0].id", is("STATION_003"));
+    }
+
+    @Test
+    public void testGetAllStationsInvalidCursor() {
+        given()
+            .param("cursor", "no-es-un-cursor")
+            .when().get("/api/stations")
+            .then()
+                .statusCode(400)
+                .body("error", is("Cursor inválido"));
+    }
+
+    @Test
+    public void testSearchStationsPaginated() {
+        String cursor = given()
+            .param("type", "AUTOMATICA")
+            .param("limit", 3)
+            .when().get("/api/stations/search")
+            .then()
+                .statusCode(200)
+                .body("size()", is(3))
+                .extract().header("X-Next-Cursor");
+
+        given()
+            .param("type", "AUTOMATICA")
+            .param("limit", 3)
+            .param("cursor", cursor)
+            .when().get("/api/stations/search")
+            .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].id", is("STATION_005"))
+                .header("X-Next-Cursor", nullValue());
+
+        // Filtro "contiene": la última página no trae cursor aunque se llene justo
+        String countryCursor = given()
+            .param("country", "spa")
+            .param("limit", 3)
+            .when().get("/api/stations/search")
+            .then()
+                .statusCode(200)
+                .body("size()", is(3))
+                .header("X-Next-Cursor", notNullValue())
+                .extract().header("X-Next-Cursor");
+
+        given()
+            .param("country", "spa")
+            .param("limit", 2)
+            .param("cursor", countryCursor)
+            .when().get("/api/stations/search")
+            .then()
+                .statusCode(200)
+                .body("size()", is(2))
+                .body("[1].id", is("STATION_005"))
+                .header("X-Next-Cursor", nullValue());
+    }
+
     @Test
     public void testGetStationById() {
         given()
@@ -37,6 +121,18 @@ public class StationsControllerTest {
                 .body("status", is("ACTIVA"));
     }
 
+    @Test
+    public void testGetAllStationsWithFieldProjection() {
+        given()
+            .param("fields", "id,latitude,longitude")
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .body("[0].id", is("STATION_001"))
+                .body("[0].latitude", notNullValue())
+                .body("[0].name", nullValue());
+    }
+
     @Test
     public void testGetStationByInvalidId() {
         given()
@@ -96,6 +192,44 @@ public class StationsControllerTest {
                 .body("size()", greaterThan(0));
     }
 
+    @Test
+    public void testFuzzySearchFoldsAccentsAndToleratesTypos() {
+        given()
+            .param("q", "Cataluna")
+            .when().get("/api/stations/search/fuzzy")
+            .then()
+                .statusCode(200)
+                .body("[0].id", is("STATION_002"));
+
+        given()
+            .param("q", "Barcelna")
+            .when().get("/api/stations/search/fuzzy")
+            .then()
+                .statusCode(200)
+                .body("[0].city", is("Barcelona"));
+
+        given()
+            .param("q", "SEVILA")
+            .param("max_distance", 1)
+            .when().get("/api/stations/search/fuzzy")
+            .then()
+                .statusCode(200)
+                .body("[0].id", is("STATION_003"));
+
+        given()
+            .param("q", "Barcelna")
+            .param("max_distance", 0)
+            .when().get("/api/stations/search/fuzzy")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(0));
+
+        given()
+            .when().get("/api/stations/search/fuzzy")
+            .then()
+                .statusCode(400);
+    }
+
     @Test
     public void testGetStationStatistics() {
         given()
@@ -178,4 +312,236 @@ public class StationsControllerTest {
                 .statusCode(200)
                 .body("size()", greaterThan(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTenantsHaveIsolatedCatalogs() {
+        // Catálogo sintético propio del inquilino, el mismo en cada petición
+        List<String> cities = given()
+            .header("X-Tenant", "equipo-a")
+            .param("limit", 50)
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .body("size()", is(20))
+                .extract().path("city");
+
+        given()
+            .header("X-Tenant", "equipo-a")
+            .param("limit", 50)
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .body("city", is(cities));
+
+        given()
+            .header("X-Tenant", "equipo-a")
+            .contentType(ContentType.JSON)
+            .body("{\"id\": \"STATION_TENANT\", \"name\": \"Estación Jaca\", \"city\": \"Jaca\", " +
+                  "\"country\": \"España\", \"latitude\": 42.5706, \"longitude\": -0.5497, \"altitude\": 820}")
+            .when().post("/api/stations")
+            .then()
+                .statusCode(201);
+
+        given()
+            .header("X-Tenant", "equipo-a")
+            .when().get("/api/weather/current/STATION_TENANT")
+            .then()
+                .statusCode(200)
+                .body("city", is("Jaca"));
+
+        // Ni el inquilino por defecto ni otro ven la estación
+        given()
+            .when().get("/api/stations/STATION_TENANT")
+            .then()
+                .statusCode(404);
+
+        given()
+            .header("X-Tenant", "equipo-b")
+            .when().get("/api/stations/STATION_TENANT")
+            .then()
+                .statusCode(404);
+
+        given()
+            .header("X-Tenant", "no válido")
+            .when().get("/api/stations")
+            .then()
+                .statusCode(400);
+
+        // Un id válido pero fuera de la lista configurada no crea un inquilino
+        given()
+            .header("X-Tenant", "equipo-desconocido")
+            .when().get("/api/stations")
+            .then()
+                .statusCode(404)
+                .body("error", is("Inquilino no encontrado"));
+    }
+
+    @Test
+    public void testStationLifecycle() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"id\": \"STATION_TEST\", \"name\": \"Estación Zaragoza Delicias\", \"city\": \"Zaragoza\", " +
+                  "\"country\": \"España\", \"latitude\": 41.6561, \"longitude\": -0.8773, \"altitude\": 199}")
+            .when().post("/api/stations")
+            .then()
+                .statusCode(201)
+                .header("Location", endsWith("/api/stations/STATION_TEST"))
+                .body("status", is("ACTIVA"))
+                .body("station_type", is("AUTOMATICA"));
+
+        given()
+            .when().get("/api/weather/current/STATION_TEST")
+            .then()
+                .statusCode(200)
+                .body("city", is("Zaragoza"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"status\": \"MANTENIMIENTO\"}")
+            .when().patch("/api/stations/STATION_TEST")
+            .then()
+                .statusCode(200)
+                .body("status", is("MANTENIMIENTO"))
+                .body("city", is("Zaragoza"));
+
+        given()
+            .param("city", "Zaragoza")
+            .param("status", "MANTENIMIENTO")
+            .when().get("/api/stations/search")
+            .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].id", is("STATION_TEST"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\": \"Estación Huesca\", \"city\": \"Huesca\", \"country\": \"España\", " +
+                  "\"latitude\": 42.1401, \"longitude\": -0.4089}")
+            .when().put("/api/stations/STATION_TEST")
+            .then()
+                .statusCode(200)
+                .body("city", is("Huesca"))
+                .body("status", is("ACTIVA"));
+
+        given()
+            .when().delete("/api/stations/STATION_TEST")
+            .then()
+                .statusCode(204);
+
+        given()
+            .when().get("/api/stations/STATION_TEST")
+            .then()
+                .statusCode(404);
+
+        given()
+            .when().delete("/api/stations/STATION_TEST")
+            .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testCreateStationConflict() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"id\": \"STATION_001\", \"name\": \"Duplicada\", \"city\": \"Madrid\", " +
+                  "\"country\": \"España\", \"latitude\": 40.4, \"longitude\": -3.7}")
+            .when().post("/api/stations")
+            .then()
+                .statusCode(409);
+    }
+
+    @Test
+    public void testCreateStationInvalidCoordinates() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\": \"Fuera de rango\", \"city\": \"Madrid\", \"country\": \"España\", " +
+                  "\"latitude\": 95.0, \"longitude\": -3.7}")
+            .when().post("/api/stations")
+            .then()
+                .statusCode(400)
+                .body("error", is("Coordenadas fuera de rango válido"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\": \"Sin coordenadas\", \"city\": \"Madrid\", \"country\": \"España\", " +
+                  "\"latitude\": \"NaN\", \"longitude\": -3.7}")
+            .when().post("/api/stations")
+            .then()
+                .statusCode(400)
+                .body("error", is("Coordenadas fuera de rango válido"));
+    }
+
+    @Test
+    public void testImportStationsCsv() {
+        String csv = "id,name,city,country,region,latitude,longitude,altitude,station_type\n" +
+            "IMPORT_001,\"Estación Lugo, Centro\",Lugo,España,Galicia,43.0097,-7.5568,465,MANUAL\n" +
+            "IMPORT_002,Estación Ourense,Ourense,España,Galicia,42.3358,-7.8639,139,AUTOMATICA\n" +
+            "IMPORT_003,Estación Fuera,Ninguna,España,Galicia,123.0,-7.0,0,AUTOMATICA\n" +
+            "IMPORT_004,Estación Sin Datos,Ninguna,España,Galicia,NaN,-7.0,0,AUTOMATICA\n";
+
+        given()
+            .contentType("text/csv")
+            .body(csv.getBytes(StandardCharsets.UTF_8))
+            .when().post("/api/stations/import")
+            .then()
+                .statusCode(200)
+                .body("imported", is(2))
+                .body("rejected", is(2))
+                .body("errors[0]", is("Fila 3: Coordenadas fuera de rango válido"))
+                .body("errors[1]", startsWith("Fila 4: Valor numérico inválido"));
+
+        given()
+            .when().get("/api/stations/IMPORT_001")
+            .then()
+                .statusCode(200)
+                .body("name", is("Estación Lugo, Centro"))
+                .body("station_type", is("MANUAL"));
+
+        given()
+            .when().get("/api/stations/IMPORT_003")
+            .then()
+                .statusCode(404);
+
+        given().when().delete("/api/stations/IMPORT_001").then().statusCode(204);
+        given().when().delete("/api/stations/IMPORT_002").then().statusCode(204);
+    }
+
+    @Test
+    public void testImportStationsNdjson() {
+        String ndjson = "{\"id\": \"IMPORT_010\", \"name\": \"Estación Soria\", \"city\": \"Soria\", " +
+            "\"country\": \"España\", \"latitude\": 41.7636, \"longitude\": -2.4649}\n" +
+            "{\"id\": \"IMPORT_011\", \"name\": \"Sin coordenadas\", \"city\": \"Soria\", \"country\": \"España\"}\n" +
+            "{\"id\": \"IMPORT_012\", \"name\": \"Coordenadas NaN\", \"city\": \"Soria\", " +
+            "\"country\": \"España\", \"latitude\": \"NaN\", \"longitude\": -2.4649}\n" +
+            "{\"id\": \"IMPORT_013\", \"name\": \"Latitud de texto\", \"city\": \"Soria\", " +
+            "\"country\": \"España\", \"latitude\": \"abc\", \"longitude\": -2.4649}\n" +
+            "{\"id\": \"IMPORT_014\", \"name\": \"Fecha inválida\", \"city\": \"Soria\", " +
+            "\"country\": \"España\", \"latitude\": 41.7, \"longitude\": -2.4, \"installation_date\": \"ayer\"}\n" +
+            "{\"id\": \"IMPORT_015\", \"name\": \"Estación Almazán\", \"city\": \"Almazán\", " +
+            "\"country\": \"España\", \"latitude\": 41.4864, \"longitude\": -2.5311}\n";
+
+        given()
+            .contentType("application/x-ndjson")
+            .body(ndjson.getBytes(StandardCharsets.UTF_8))
+            .when().post("/api/stations/import")
+            .then()
+                .statusCode(200)
+                .body("imported", is(2))
+                .body("rejected", is(4))
+                .body("errors[0]", is("Fila 2: Latitud y longitud son requeridas"))
+                .body("errors[1]", is("Fila 3: Coordenadas fuera de rango válido"))
+                .body("errors[2]", is("Fila 4: Valor inválido en latitude: abc"))
+                .body("errors[3]", startsWith("Fila 5: Valor inválido en installation_date"));
+
+        given().when().delete("/api/stations/IMPORT_010").then().statusCode(204);
+        given().when().delete("/api/stations/IMPORT_015").then().statusCode(204);
+
+        // Un error de sintaxis sí invalida la importación entera
+        given()
+            .contentType("application/x-ndjson")
+            .body("{\"id\": \"IMPORT_016\", \"name\": }\n".getBytes(StandardCharsets.UTF_8))
+            .when().post("/api/stations/import")
+            .then()
+                .statusCode(400);
+    }
+}
@@ -1,18 +1,68 @@
 package com.meteorologia.controller;
 
+import com.meteorologia.filter.AccessLog;
+import com.meteorologia.filter.AdaptiveConcurrencyLimiter;
+import com.meteorologia.filter.ClientRateLimiter;
+import com.meteorologia.service.RequestCoalescer;
+import com.meteorologia.service.WeatherTiles;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 
+import jakarta.inject.Inject;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 public class WeatherControllerTest {
 
+    @Inject
+    AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Inject
+    AccessLog accessLog;
+
+    @Inject
+    ClientRateLimiter rateLimiter;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    RequestCoalescer coalescer;
+
+    @Inject
+    WeatherTiles weatherTiles;
+
     @Test
     public void testHealthEndpoint() {
         given()
@@ -39,6 +89,30 @@ public class WeatherControllerTest {
                 .body("measurement_time", notNullValue());
     }
 
+    @Test
+    public void testGetCurrentWeatherWithFieldProjection() {
+        given()
+            .param("fields", "station_id,latitude,longitude,temperature,weatherIcon")
+            .when().get("/api/weather/current/STATION_001")
+            .then()
+                .statusCode(200)
+                .body("station_id", is("STATION_001"))
+                .body("temperature", notNullValue())
+                .body("weather_icon", notNullValue())
+                .body("humidity", nullValue())
+                .body("city", nullValue());
+    }
+
+    @Test
+    public void testGetCurrentWeatherWithUnknownField() {
+        given()
+            .param("fields", "temperature,inexistente")
+            .when().get("/api/weather/current/STATION_001")
+            .then()
+                .statusCode(400)
+                .body("error", is("Campo desconocido: inexistente"));
+    }
+
     @Test
     public void testGetCurrentWeatherByInvalidStationId() {
         given()
@@ -62,6 +136,58 @@ public class WeatherControllerTest {
                 .body("humidity", notNullValue());
     }
 
+    @Test
+    public void testGetCurrentWeatherIsSpatiallyCoherent() {
+        // Dos puntos a ~100 m deben dar temperaturas casi idénticas
+        float t1 = given()
+            .param("lat", 40.4168)
+            .param("lon", -3.7038)
+            .when().get("/api/weather/current")
+            .then()
+                .statusCode(200)
+                .extract().path("temperature");
+        float t2 = given()
+            .param("lat", 40.4177)
+            .param("lon", -3.7038)
+            .when().get("/api/weather/current")
+            .then()
+                .statusCode(200)
+                .extract().path("temperature");
+        assertTrue(Math.abs(t1 - t2) <= 0.5f);
+    }
+
+    @Test
+    public void testNearbyCoordinatesShareCachedReading() {
+        // Misma celda de 0,01°: misma estación y misma lectura, con las coordenadas de cada petición
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Map<String, Object> a = given()
+                .param("lat", 41.38512)
+                .param("lon", 2.17341)
+                .when().get("/api/weather/current")
+                .then()
+                    .statusCode(200)
+                    .body("latitude", is(41.38512f))
+                    .extract().path("$");
+            Map<String, Object> b = given()
+                .param("lat", 41.38877)
+                .param("lon", 2.17009)
+                .when().get("/api/weather/current")
+                .then()
+                    .statusCode(200)
+                    .body("longitude", is(2.17009f))
+                    .extract().path("$");
+            if (a.get("measurement_time").equals(b.get("measurement_time"))) {
+                assertTrue(a.get("station_id").equals("STATION_002"));
+                assertTrue(a.get("station_id").equals(b.get("station_id")));
+                assertTrue(a.get("temperature").equals(b.get("temperature")));
+                assertTrue(a.get("humidity").equals(b.get("humidity")));
+                assertTrue(a.get("wind_speed").equals(b.get("wind_speed")));
+                return;
+            }
+        }
+        throw new AssertionError("Las dos lecturas cruzaron un cambio de tick dos veces");
+    }
+
     @Test
     public void testGetCurrentWeatherByInvalidCoordinates() {
         given()
@@ -97,6 +223,141 @@ public class WeatherControllerTest {
                 .body("[0].min_temperature", notNullValue());
     }
 
+    @Test
+    public void testGetForecastIsTemporallyCoherent() {
+        List<Float> maxTemperatures = given()
+            .param("days", 10)
+            .when().get("/api/weather/forecast/STATION_001")
+            .then()
+                .statusCode(200)
+                .extract().path("max_temperature");
+        for (int i = 1; i < maxTemperatures.size(); i++) {
+            assertTrue(Math.abs(maxTemperatures.get(i) - maxTemperatures.get(i - 1)) < 12f);
+        }
+    }
+
+    @Test
+    public void testResponsesAreDeterministicWithinTick() {
+        // Sin estado aleatorio: dos peticiones del mismo tick devuelven el mismo cuerpo
+        String first = given().when().get("/api/weather/current/STATION_002").then().statusCode(200).extract().asString();
+        String second = given().when().get("/api/weather/current/STATION_002").then().statusCode(200).extract().asString();
+        if (!first.equals(second)) {
+            // Se ha cruzado un cambio de tick entre ambas: se repite una vez
+            first = second;
+            second = given().when().get("/api/weather/current/STATION_002").then().extract().asString();
+        }
+        assertTrue(first.equals(second));
+
+        List<String> sunrises = given()
+            .param("days", 7)
+            .when().get("/api/weather/forecast/STATION_002")
+            .then()
+                .statusCode(200)
+                .extract().path("sunrise");
+        List<String> again = given()
+            .param("days", 7)
+            .when().get("/api/weather/forecast/STATION_002")
+            .then()
+                .extract().path("sunrise");
+        assertTrue(sunrises.equals(again));
+    }
+
+    @Test
+    public void testSunriseAndSunsetFollowTheSun() {
+        // Madrid: entre 9 y 15,5 horas de luz según la época, siempre en hora local
+        List<Map<String, String>> forecasts = given()
+            .param("days", 10)
+            .when().get("/api/weather/forecast/STATION_001")
+            .then()
+                .statusCode(200)
+                .extract().path("$");
+        for (Map<String, String> forecast : forecasts) {
+            String sunrise = forecast.get("sunrise");
+            String sunset = forecast.get("sunset");
+            assertTrue(sunrise.matches("\\d{2}:\\d{2}") && sunset.matches("\\d{2}:\\d{2}"));
+            assertTrue(sunrise.compareTo("05:00") > 0 && sunrise.compareTo("09:30") < 0);
+            assertTrue(sunset.compareTo("17:00") > 0 && sunset.compareTo("22:30") < 0);
+            int daylight = minutes(sunset) - minutes(sunrise);
+            assertTrue(daylight > 9 * 60 && daylight < 15 * 60 + 30);
+        }
+    }
+
+    @Test
+    public void testStationAltitudeLowersTemperature() {
+        // Estación a 3.398 m: unos 22 °C por debajo del mismo punto a nivel del mar
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"id\": \"STATION_VELETA\", \"name\": \"Estación Pico Veleta\", \"city\": \"Granada\", " +
+                  "\"country\": \"España\", \"latitude\": 37.0531, \"longitude\": -3.3114, \"altitude\": 3398}")
+            .when().post("/api/stations")
+            .then()
+                .statusCode(201);
+        try {
+            float summit = given()
+                .when().get("/api/weather/current/STATION_VELETA")
+                .then()
+                    .statusCode(200)
+                    .extract().path("temperature");
+            float seaLevel = given()
+                .param("lat", 37.0531)
+                .param("lon", -3.3114)
+                .when().get("/api/weather/current")
+                .then()
+                    .statusCode(200)
+                    .extract().path("temperature");
+            assertTrue(seaLevel - summit > 12f);
+        } finally {
+            given().when().delete("/api/stations/STATION_VELETA").then().statusCode(204);
+        }
+    }
+
+    @Test
+    public void testHourlyForecastForSeveralStations() {
+        List<Map<String, Object>> points = given()
+            .param("stations", "STATION_001,STATION_002")
+            .param("hours", 240)
+            .when().get("/api/weather/forecast/hourly")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(480))
+                .body("[0].station_id", is("STATION_001"))
+                .body("[239].station_id", is("STATION_001"))
+                .body("[240].station_id", is("STATION_002"))
+                .extract().path("$");
+        // Puntos consecutivos separados una hora, en punto y en UTC
+        String first = (String) points.get(0).get("time");
+        String second = (String) points.get(1).get("time");
+        assertTrue(first.endsWith(":00:00Z"));
+        assertTrue(Duration.between(Instant.parse(first), Instant.parse(second)).toHours() == 1);
+        assertTrue(points.get(0).get("time").equals(points.get(240).get("time")));
+    }
+
+    @Test
+    public void testHourlyForecastValidation() {
+        given()
+            .param("stations", "STATION_001")
+            .param("hours", 241)
+            .when().get("/api/weather/forecast/hourly")
+            .then()
+                .statusCode(400);
+
+        given()
+            .when().get("/api/weather/forecast/hourly")
+            .then()
+                .statusCode(400);
+
+        given()
+            .param("stations", "STATION_001,INVALID_STATION")
+            .when().get("/api/weather/forecast/hourly")
+            .then()
+                .statusCode(404)
+                .body("error", is("Estación no encontrada: INVALID_STATION"));
+    }
+
+    private static int minutes(String clock) {
+        return Integer.parseInt(clock.substring(0, 2)) * 60 + Integer.parseInt(clock.substring(3));
+    }
+
     @Test
     public void testGetForecastByInvalidStationId() {
         given()
@@ -140,4 +401,472 @@ public class WeatherControllerTest {
                 .statusCode(200)
                 .body("size()", is(5));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRateLimitRejectsBurstWithRetryAfter() {
+        // Un cliente que agota su bucket recibe 429 con Retry-After; otro cliente no se ve afectado
+        String retryAfter = null;
+        for (int i = 0; i < 150 && retryAfter == null; i++) {
+            io.restassured.response.Response response = given()
+                .header("X-API-Key", "cliente-rafaga")
+                .when().get("/api/weather/health");
+            if (response.statusCode() == 429) {
+                retryAfter = response.header("Retry-After");
+            }
+        }
+        assertNotNull(retryAfter);
+
+        given()
+            .header("X-API-Key", "cliente-tranquilo")
+            .when().get("/api/weather/health")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    public void testRateLimitIgnoresUnknownApiKeys() {
+        // Una clave inventada en cada petición no da un bucket nuevo: cuenta la dirección remota
+        try {
+            boolean limited = false;
+            for (int i = 0; i < 150 && !limited; i++) {
+                limited = given()
+                    .header("X-API-Key", "clave-inventada-" + i)
+                    .when().get("/api/weather/health")
+                    .statusCode() == 429;
+            }
+            assertTrue(limited);
+        } finally {
+            // El bucket agotado es el de la dirección local, compartido con el resto de pruebas
+            rateLimiter.reset();
+        }
+    }
+
+    @Test
+    public void testConcurrencyLimitFollowsLatencyGradient() throws InterruptedException {
+        // Ventanas con la latencia de siempre y el límite en uso: crece
+        int initial = concurrencyLimiter.getLimit();
+        for (int i = 0; i < 5; i++) {
+            limiterWindow(0, true);
+        }
+        int grown = concurrencyLimiter.getLimit();
+        assertTrue(grown > initial, "límite " + initial + " -> " + grown);
+
+        // Una ventana entera de respuestas lentas reduce el límite una sola vez, no una por petición
+        limiterWindow(10_000, true);
+        int shrunk = concurrencyLimiter.getLimit();
+        assertTrue(shrunk < grown && shrunk >= grown * 0.8, "límite " + grown + " -> " + shrunk);
+
+        // Igual con los 5xx: una reducción por ventana
+        limiterWindow(0, false);
+        int backedOff = concurrencyLimiter.getLimit();
+        assertTrue(backedOff < shrunk && backedOff >= shrunk * 0.9 - 1, "límite " + shrunk + " -> " + backedOff);
+
+        given()
+            .when().get("/q/metrics")
+            .then()
+                .statusCode(200)
+                .body(containsString("meteorologia_concurrency_limit"))
+                .body(containsString("meteorologia_concurrency_in_flight"));
+    }
+
+    // Ocupa todo el límite y libera cada hueco con la latencia indicada; pasada la ventana
+    // una muestra más la cierra y el límite ya refleja el ajuste
+    private void limiterWindow(long latencyMillis, boolean success) throws InterruptedException {
+        int samples = 0;
+        while (samples < 10) {
+            List<Long> starts = new ArrayList<>();
+            for (int i = 0; i < concurrencyLimiter.getLimit(); i++) {
+                starts.add(concurrencyLimiter.tryAcquire());
+            }
+            for (long start : starts) {
+                concurrencyLimiter.release(start - TimeUnit.MILLISECONDS.toNanos(latencyMillis), success);
+            }
+            samples += starts.size();
+        }
+        Thread.sleep(60);
+        concurrencyLimiter.release(concurrencyLimiter.tryAcquire(), true);
+    }
+
+    @Test
+    public void testAccessLogMetricsExported() {
+        given()
+            .when().get("/api/weather/current/STATION_001")
+            .then()
+                .statusCode(200);
+
+        given()
+            .when().get("/q/metrics")
+            .then()
+                .statusCode(200)
+                .body(containsString("meteorologia_access_log_written_total"))
+                .body(containsString("meteorologia_access_log_dropped_total"))
+                .body(containsString("meteorologia_access_log_backlog"));
+    }
+
+    @Test
+    public void testAccessLogWritesRecordsAndDropsOverflow() throws InterruptedException {
+        double writtenBefore = meterRegistry.counter("meteorologia.access_log.written").count();
+        double droppedBefore = meterRegistry.counter("meteorologia.access_log.dropped").count();
+
+        // Una ráfaga muy superior a los 64 huecos de test antes de que el hilo de fondo despierte
+        long start = System.nanoTime();
+        int accepted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (accessLog.record("GET", "/api/weather/current/STATION_001", null, "STATION_001", 200, 1_000, 10)) {
+                accepted++;
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Quien registra nunca espera: lo que no cabe se descarta y se cuenta
+        assertTrue(elapsedMillis < 1000, "la ráfaga tardó " + elapsedMillis + " ms");
+        assertTrue(accepted < 10_000);
+        assertTrue(meterRegistry.counter("meteorologia.access_log.dropped").count() - droppedBefore
+            >= 10_000 - accepted);
+
+        // Y lo aceptado termina escrito por el hilo de fondo
+        for (int attempt = 0; attempt < 50
+            && meterRegistry.counter("meteorologia.access_log.written").count() - writtenBefore < accepted; attempt++) {
+            Thread.sleep(100);
+        }
+        assertTrue(meterRegistry.counter("meteorologia.access_log.written").count() - writtenBefore >= accepted);
+    }
+
+    @Test
+    public void testFlightRecorderEventsFeedMetrics() throws InterruptedException {
+        given()
+            .when().get("/api/weather/current/STATION_001")
+            .then()
+                .statusCode(200);
+
+        // El consumidor JFR procesa los eventos por lotes, aproximadamente cada segundo
+        String metrics = "";
+        for (int attempt = 0; attempt < 50 && !metrics.contains("meteorologia_jfr_generation_seconds_count"); attempt++) {
+            Thread.sleep(200);
+            metrics = given().when().get("/q/metrics").then().statusCode(200).extract().asString();
+        }
+        assertTrue(metrics.contains("meteorologia_jfr_generation_seconds_count{kind=\"current\""));
+        assertTrue(metrics.contains("meteorologia_jfr_response_write_bytes"));
+    }
+
+    @Test
+    public void testConcurrentIdenticalForecastsShareResult() throws Exception {
+        // Ráfaga de peticiones idénticas: todas reciben la misma respuesta completa
+        List<CompletableFuture<String>> responses = IntStream.range(0, 16)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> given()
+                .queryParam("days", 10)
+                .when().get("/api/weather/forecast/STATION_001")
+                .then()
+                    .statusCode(200)
+                    .extract().asString()))
+            .toList();
+        Set<String> bodies = new HashSet<>();
+        for (CompletableFuture<String> response : responses) {
+            bodies.add(response.get(30, TimeUnit.SECONDS));
+        }
+        assertEquals(1, bodies.size());
+
+        given()
+            .when().get("/q/metrics")
+            .then()
+                .statusCode(200)
+                .body(containsString("meteorologia_coalescing_executed_total"))
+                .body(containsString("meteorologia_coalescing_shared_total"));
+
+        // Con un cálculo que no termina hasta soltarlo, las que llegan mientras tanto
+        // tienen que esperar al primero: ninguna vuelve a calcular
+        double executedBefore = meterRegistry.counter("meteorologia.coalescing.executed").count();
+        double sharedBefore = meterRegistry.counter("meteorologia.coalescing.shared").count();
+        byte[] result = "{}".getBytes(StandardCharsets.UTF_8);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Hilos propios: en el pool común con poco paralelismo el primero bloquearía al resto
+        ExecutorService callers = Executors.newFixedThreadPool(9);
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> coalesce(() -> {
+            started.countDown();
+            release.await();
+            return result;
+        }), callers);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        List<CompletableFuture<byte[]>> followers = IntStream.range(0, 8)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> coalesce(() -> {
+                throw new IllegalStateException("cálculo repetido");
+            }), callers))
+            .toList();
+        for (int attempt = 0; attempt < 100
+            && meterRegistry.counter("meteorologia.coalescing.shared").count() - sharedBefore < 8; attempt++) {
+            Thread.sleep(50);
+        }
+        release.countDown();
+
+        assertTrue(first.get(10, TimeUnit.SECONDS) == result);
+        for (CompletableFuture<byte[]> follower : followers) {
+            assertTrue(follower.get(10, TimeUnit.SECONDS) == result);
+        }
+        assertEquals(1, meterRegistry.counter("meteorologia.coalescing.executed").count() - executedBefore, 0.0);
+        assertEquals(8, meterRegistry.counter("meteorologia.coalescing.shared").count() - sharedBefore, 0.0);
+        callers.shutdown();
+    }
+
+    @Test
+    public void testCoalescingFollowersStopWaitingForStalledLeader() throws Exception {
+        double timedOutBefore = meterRegistry.counter("meteorologia.coalescing.timed_out").count();
+        byte[] leaderResult = "{\"de\": \"primera\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] ownResult = "{\"de\": \"segunda\"}".getBytes(StandardCharsets.UTF_8);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<byte[]> leader = CompletableFuture.supplyAsync(() -> coalesce(() -> {
+                started.countDown();
+                release.await();
+                return leaderResult;
+            }), callers);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            // La primera no termina: pasado el plazo (1 s en test) la segunda calcula por su cuenta
+            byte[] follower = CompletableFuture.supplyAsync(() -> coalesce(() -> ownResult), callers)
+                .get(10, TimeUnit.SECONDS);
+            assertTrue(follower == ownResult);
+            assertEquals(1, meterRegistry.counter("meteorologia.coalescing.timed_out").count() - timedOutBefore, 0.0);
+
+            release.countDown();
+            assertTrue(leader.get(10, TimeUnit.SECONDS) == leaderResult);
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    private byte[] coalesce(RequestCoalescer.Computation computation) {
+        try {
+            return coalescer.coalesce("test:coalescing", computation);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testReadinessReportsSaturation() throws InterruptedException {
+        // El precalentamiento corre en segundo plano al arrancar: se espera a que termine
+        int status = 0;
+        for (int attempt = 0; attempt < 50 && status != 200; attempt++) {
+            status = given().when().get("/q/health/ready").then().extract().statusCode();
+            if (status != 200) {
+                Thread.sleep(200);
+            }
+        }
+
+        given()
+            .when().get("/q/health/ready")
+            .then()
+                .statusCode(200)
+                .body("checks.find { it.name == 'saturation' }.status", is("UP"))
+                .body("checks.find { it.name == 'saturation' }.data.cache_warm", is(true))
+                .body("checks.find { it.name == 'saturation' }.data.rejection_rate", notNullValue());
+
+        given()
+            .when().get("/q/metrics")
+            .then()
+                .statusCode(200)
+                .body(containsString("meteorologia_saturation "))
+                .body(containsString("meteorologia_saturation_event_loop_lag_seconds"))
+                .body(containsString("meteorologia_saturation_worker_queue_delay_seconds"))
+                .body(containsString("meteorologia_saturation_rejection_rate"));
+    }
+
+    @Test
+    public void testExportCsv() {
+        String csv = given()
+            .when().get("/api/weather/export")
+            .then()
+                .statusCode(200)
+                .contentType(containsString("text/csv"))
+                .extract().asString();
+
+        String[] lines = csv.split("\n");
+        assertTrue(lines[0].startsWith("station_id,name,city,country"));
+        assertTrue(lines.length >= 6);
+        assertTrue(csv.contains("\nSTATION_001,Estación Madrid Centro,Madrid,España"));
+    }
+
+    @Test
+    public void testExportColumnar() {
+        byte[] body = given()
+            .param("format", "columnar")
+            .when().get("/api/weather/export")
+            .then()
+                .statusCode(200)
+                .contentType(containsString("application/vnd.meteorologia.columnar"))
+                .extract().asByteArray();
+
+        ByteBuffer buffer = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        assertTrue(new String(body, 0, 4, StandardCharsets.US_ASCII).equals("MCOL"));
+        // El volcado termina con un trozo vacío
+        assertTrue(buffer.getInt(body.length - 4) == 0);
+    }
+
+    @Test
+    public void testExportUnknownFormat() {
+        given()
+            .param("format", "xml")
+            .when().get("/api/weather/export")
+            .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testStaleTilesAreNotCacheable() {
+        long tick = weatherTiles.tile(0, 0, 0).tick();
+        // Una pirámide del tick anterior se sirve sin max-age
+        assertEquals(0, weatherTiles.maxAgeSeconds(tick - 1));
+        assertTrue(weatherTiles.maxAgeSeconds(tick) > 0 || weatherTiles.maxAgeSeconds(tick + 1) > 0);
+    }
+
+    @Test
+    public void testTileAggregates() {
+        // Zoom 0: una única tesela con todas las estaciones
+        int total = given()
+            .when().get("/api/weather/tiles/0/0/0")
+            .then()
+                .statusCode(200)
+                // no-cache si justo ha cambiado el tick y aún se sirve la pirámide anterior
+                .header("Cache-Control", anyOf(startsWith("public, max-age="), is("no-cache")))
+                .header("Vary", is("X-Tenant"))
+                .body("station_count", greaterThan(0))
+                .body("mean_temperature", notNullValue())
+                .body("weather_icon", notNullValue())
+                .extract().path("station_count");
+
+        // Madrid (40.4168, -3.7038) cae en la tesela 14/8023/6177
+        given()
+            .when().get("/api/weather/tiles/14/8023/6177")
+            .then()
+                .statusCode(200)
+                .body("station_count", is(1));
+
+        // La tesela 1/0/0 (noroeste) contiene las estaciones al oeste de Greenwich
+        int west = given()
+            .when().get("/api/weather/tiles/1/0/0")
+            .then()
+                .statusCode(200)
+                .extract().path("station_count");
+        int east = given()
+            .when().get("/api/weather/tiles/1/1/0")
+            .then()
+                .statusCode(200)
+                .extract().path("station_count");
+        assertTrue(west + east == total);
+    }
+
+    @Test
+    public void testEmptyAndInvalidTiles() {
+        given()
+            .when().get("/api/weather/tiles/3/7/7")
+            .then()
+                .statusCode(200)
+                .body("station_count", is(0))
+                .body("mean_temperature", nullValue());
+
+        given()
+            .when().get("/api/weather/tiles/2/4/0")
+            .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void testAggregatesByCountry() {
+        List<Integer> counts = given()
+            .when().get("/api/weather/aggregates")
+            .then()
+                .statusCode(200)
+                .header("Cache-Control", containsString("max-age="))
+                .header("Vary", is("X-Tenant"))
+                .body("find { it.country == 'España' }.station_count", greaterThan(4))
+                .body("find { it.country == 'España' }.region", nullValue())
+                .extract().path("station_count");
+
+        int total = given()
+            .when().get("/api/weather/tiles/0/0/0")
+            .then()
+                .statusCode(200)
+                .extract().path("station_count");
+        assertTrue(counts.stream().mapToInt(Integer::intValue).sum() == total);
+
+        // Mínimo, media y máximo de la misma respuesta, para no cruzar un cambio de tick
+        List<Map<String, Number>> groups = given()
+            .param("group_by", "country")
+            .when().get("/api/weather/aggregates")
+            .then()
+                .statusCode(200)
+                .extract().path("$");
+        for (Map<String, Number> group : groups) {
+            double mean = group.get("mean_temperature").doubleValue();
+            assertTrue(group.get("min_temperature").doubleValue() <= mean + 0.05);
+            assertTrue(mean <= group.get("max_temperature").doubleValue() + 0.05);
+        }
+    }
+
+    @Test
+    public void testAggregatesUseRequestTenant() {
+        List<String> ids = given()
+            .header("X-Tenant", "equipo-agregados")
+            .param("limit", 50)
+            .when().get("/api/stations")
+            .then()
+                .statusCode(200)
+                .extract().path("id");
+
+        // Los tramos se reducen en otros hilos: deben usar las lecturas del inquilino, no las del de por defecto
+        for (int attempt = 0; attempt < 3; attempt++) {
+            List<Float> before = tenantTemperatures(ids);
+            List<Map<String, Number>> groups = given()
+                .header("X-Tenant", "equipo-agregados")
+                .when().get("/api/weather/aggregates")
+                .then()
+                    .statusCode(200)
+                    .extract().path("$");
+            if (!before.equals(tenantTemperatures(ids))) {
+                // Cambió el tick entre medias
+                continue;
+            }
+            assertEquals(ids.size(), groups.stream().mapToInt(g -> g.get("station_count").intValue()).sum());
+            double min = groups.stream().mapToDouble(g -> g.get("min_temperature").doubleValue()).min().orElseThrow();
+            double max = groups.stream().mapToDouble(g -> g.get("max_temperature").doubleValue()).max().orElseThrow();
+            assertEquals(before.stream().mapToDouble(Float::doubleValue).min().orElseThrow(), min, 0.001);
+            assertEquals(before.stream().mapToDouble(Float::doubleValue).max().orElseThrow(), max, 0.001);
+            return;
+        }
+        throw new AssertionError("El tick cambió en cada intento");
+    }
+
+    private List<Float> tenantTemperatures(List<String> ids) {
+        List<Float> temperatures = new ArrayList<>();
+        for (String id : ids) {
+            temperatures.add(given()
+                .header("X-Tenant", "equipo-agregados")
+                .when().get("/api/weather/current/" + id)
+                .then()
+                    .statusCode(200)
+                    .extract().path("temperature"));
+        }
+        return temperatures;
+    }
+
+    @Test
+    public void testAggregatesByRegion() {
+        given()
+            .param("group_by", "region")
+            .when().get("/api/weather/aggregates")
+            .then()
+                .statusCode(200)
+                .body("find { it.region == 'Andalucía' }.country", is("España"))
+                .body("find { it.region == 'Andalucía' }.station_count", greaterThan(0));
+
+        given()
+            .param("group_by", "city")
+            .when().get("/api/weather/aggregates")
+            .then()
+                .statusCode(400);
+    }
+}